@@ -0,0 +1,406 @@
+package com.github.brymck.gsondiff;
+
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class represents a diff between two primitive arrays, counting the items added and removed
+ * in the same way as {@link GsonDiffer} does for lists, and optionally recording which index ranges
+ * changed position by position.
+ *
+ * <p>Items at positions that are the same in both arrays can't have been added or removed, so only
+ * the m items that differ position by position are sorted, and each item of the other array is
+ * looked up among them with a binary search. This takes O(n log m) time and O(m) memory for arrays
+ * of length n. When more than half of the items differ, both whole arrays are sorted and walked
+ * side by side instead, taking O(n log n) time and O(n) memory.
+ */
+public class GsonArrayDiff {
+  private static final int[] NO_RANGES = new int[0];
+  private static final GsonArrayDiff EMPTY = new GsonArrayDiff(0, 0, NO_RANGES);
+
+  private final int addedCount;
+  private final int removedCount;
+  private final int[] changedRanges;
+
+  /**
+   * Create an instance of {@link GsonArrayDiff}
+   *
+   * @param addedCount the number of items that are not in the original array
+   * @param removedCount the number of items that are not in the modified array
+   * @param changedRanges pairs of start (inclusive) and end (exclusive) indices
+   */
+  private GsonArrayDiff(int addedCount, int removedCount, @NotNull int[] changedRanges) {
+    this.addedCount = addedCount;
+    this.removedCount = removedCount;
+    this.changedRanges = changedRanges;
+  }
+
+  /**
+   * Diff two arrays of doubles
+   *
+   * @param before the original array
+   * @param after the modified array
+   * @param trackChangedRanges whether to record which index ranges changed
+   * @return a {@link GsonArrayDiff}
+   */
+  static @NotNull GsonArrayDiff of(
+      @NotNull double[] before, @NotNull double[] after, boolean trackChangedRanges) {
+    int length = Math.min(before.length, after.length);
+    int first = 0;
+    while (first < length && same(before[first], after[first])) {
+      first++;
+    }
+    if (first == length && before.length == after.length) {
+      return EMPTY;
+    }
+    int[] changedRanges = NO_RANGES;
+    if (trackChangedRanges) {
+      RangeBuilder ranges = new RangeBuilder();
+      int start = -1;
+      for (int i = first; i < length; i++) {
+        boolean changed = !same(before[i], after[i]);
+        if (changed && start < 0) {
+          start = i;
+        } else if (!changed && start >= 0) {
+          ranges.add(start, i);
+          start = -1;
+        }
+      }
+      ranges.add(start < 0 ? length : start, Math.max(before.length, after.length));
+      changedRanges = ranges.toArray();
+    }
+    int mismatches = 0;
+    for (int i = first; i < length; i++) {
+      if (!same(before[i], after[i])) {
+        mismatches++;
+      }
+    }
+    int changedBeforeCount = mismatches + before.length - length;
+    int changedAfterCount = mismatches + after.length - length;
+    if (isMostlyChanged(changedBeforeCount + changedAfterCount, before.length + after.length)) {
+      double[] sortedBefore = before.clone();
+      double[] sortedAfter = after.clone();
+      Arrays.sort(sortedBefore);
+      Arrays.sort(sortedAfter);
+      return ofSorted(sortedBefore, sortedAfter, changedRanges);
+    }
+    // Items at positions that didn't change are on both sides, so only the m changed items on
+    // each side can have been added or removed
+    double[] changedBefore = new double[changedBeforeCount];
+    double[] changedAfter = new double[changedAfterCount];
+    int j = 0;
+    for (int i = first; i < length; i++) {
+      if (!same(before[i], after[i])) {
+        changedBefore[j] = before[i];
+        changedAfter[j] = after[i];
+        j++;
+      }
+    }
+    System.arraycopy(before, length, changedBefore, j, before.length - length);
+    System.arraycopy(after, length, changedAfter, j, after.length - length);
+    int addedCount = countMissing(changedAfter, before);
+    int removedCount = countMissing(changedBefore, after);
+    return new GsonArrayDiff(addedCount, removedCount, changedRanges);
+  }
+
+  /**
+   * Diff two arrays of integers
+   *
+   * @param before the original array
+   * @param after the modified array
+   * @param trackChangedRanges whether to record which index ranges changed
+   * @return a {@link GsonArrayDiff}
+   */
+  static @NotNull GsonArrayDiff of(
+      @NotNull int[] before, @NotNull int[] after, boolean trackChangedRanges) {
+    int length = Math.min(before.length, after.length);
+    int first = 0;
+    while (first < length && before[first] == after[first]) {
+      first++;
+    }
+    if (first == length && before.length == after.length) {
+      return EMPTY;
+    }
+    int[] changedRanges = NO_RANGES;
+    if (trackChangedRanges) {
+      RangeBuilder ranges = new RangeBuilder();
+      int start = -1;
+      for (int i = first; i < length; i++) {
+        boolean changed = before[i] != after[i];
+        if (changed && start < 0) {
+          start = i;
+        } else if (!changed && start >= 0) {
+          ranges.add(start, i);
+          start = -1;
+        }
+      }
+      ranges.add(start < 0 ? length : start, Math.max(before.length, after.length));
+      changedRanges = ranges.toArray();
+    }
+    int mismatches = 0;
+    for (int i = first; i < length; i++) {
+      if (before[i] != after[i]) {
+        mismatches++;
+      }
+    }
+    int changedBeforeCount = mismatches + before.length - length;
+    int changedAfterCount = mismatches + after.length - length;
+    if (isMostlyChanged(changedBeforeCount + changedAfterCount, before.length + after.length)) {
+      int[] sortedBefore = before.clone();
+      int[] sortedAfter = after.clone();
+      Arrays.sort(sortedBefore);
+      Arrays.sort(sortedAfter);
+      return ofSorted(sortedBefore, sortedAfter, changedRanges);
+    }
+    // Items at positions that didn't change are on both sides, so only the m changed items on
+    // each side can have been added or removed
+    int[] changedBefore = new int[changedBeforeCount];
+    int[] changedAfter = new int[changedAfterCount];
+    int j = 0;
+    for (int i = first; i < length; i++) {
+      if (before[i] != after[i]) {
+        changedBefore[j] = before[i];
+        changedAfter[j] = after[i];
+        j++;
+      }
+    }
+    System.arraycopy(before, length, changedBefore, j, before.length - length);
+    System.arraycopy(after, length, changedAfter, j, after.length - length);
+    int addedCount = countMissing(changedAfter, before);
+    int removedCount = countMissing(changedBefore, after);
+    return new GsonArrayDiff(addedCount, removedCount, changedRanges);
+  }
+
+  /**
+   * Count added and removed items by walking two sorted copies of the arrays side by side, which
+   * takes O(n log n) time for the sort and O(n) extra memory
+   *
+   * @param sortedBefore a sorted copy of the original array
+   * @param sortedAfter a sorted copy of the modified array
+   * @param changedRanges pairs of start (inclusive) and end (exclusive) indices
+   * @return a {@link GsonArrayDiff}
+   */
+  private static @NotNull GsonArrayDiff ofSorted(
+      @NotNull double[] sortedBefore, @NotNull double[] sortedAfter, @NotNull int[] changedRanges) {
+    int i = 0;
+    int j = 0;
+    int addedCount = 0;
+    int removedCount = 0;
+    while (i < sortedBefore.length && j < sortedAfter.length) {
+      int comparison = Double.compare(sortedBefore[i], sortedAfter[j]);
+      if (comparison < 0) {
+        removedCount++;
+        i++;
+      } else if (comparison > 0) {
+        addedCount++;
+        j++;
+      } else {
+        // Skip every copy of a value present on both sides
+        double value = sortedBefore[i];
+        while (i < sortedBefore.length && same(sortedBefore[i], value)) {
+          i++;
+        }
+        while (j < sortedAfter.length && same(sortedAfter[j], value)) {
+          j++;
+        }
+      }
+    }
+    removedCount += sortedBefore.length - i;
+    addedCount += sortedAfter.length - j;
+    return new GsonArrayDiff(addedCount, removedCount, changedRanges);
+  }
+
+  /**
+   * Count added and removed items by walking two sorted copies of the arrays side by side
+   *
+   * @param sortedBefore a sorted copy of the original array
+   * @param sortedAfter a sorted copy of the modified array
+   * @param changedRanges pairs of start (inclusive) and end (exclusive) indices
+   * @return a {@link GsonArrayDiff}
+   */
+  private static @NotNull GsonArrayDiff ofSorted(
+      @NotNull int[] sortedBefore, @NotNull int[] sortedAfter, @NotNull int[] changedRanges) {
+    int i = 0;
+    int j = 0;
+    int addedCount = 0;
+    int removedCount = 0;
+    while (i < sortedBefore.length && j < sortedAfter.length) {
+      if (sortedBefore[i] < sortedAfter[j]) {
+        removedCount++;
+        i++;
+      } else if (sortedBefore[i] > sortedAfter[j]) {
+        addedCount++;
+        j++;
+      } else {
+        // Skip every copy of a value present on both sides
+        int value = sortedBefore[i];
+        while (i < sortedBefore.length && sortedBefore[i] == value) {
+          i++;
+        }
+        while (j < sortedAfter.length && sortedAfter[j] == value) {
+          j++;
+        }
+      }
+    }
+    removedCount += sortedBefore.length - i;
+    addedCount += sortedAfter.length - j;
+    return new GsonArrayDiff(addedCount, removedCount, changedRanges);
+  }
+
+  /**
+   * Decide whether so many items changed position by position that sorting both whole arrays is
+   * cheaper than searching the changed items
+   */
+  private static boolean isMostlyChanged(int changedCount, int totalCount) {
+    return changedCount > totalCount / 2;
+  }
+
+  /**
+   * Count the items that don't appear anywhere in another array, sorting {@code values} in place.
+   * Each item of {@code others} is looked up with a binary search, so this takes O(n log m) time
+   * for n others and m values, and needs no memory beyond a flag per value.
+   *
+   * @param values the items to look for, which may be sorted in place
+   * @param others the items to look in, in any order
+   * @return the number of items of {@code values} missing from {@code others}
+   */
+  private static int countMissing(@NotNull double[] values, @NotNull double[] others) {
+    Arrays.sort(values);
+    boolean[] found = new boolean[values.length];
+    for (double other : others) {
+      int index = Arrays.binarySearch(values, other);
+      if (index >= 0 && !found[index]) {
+        // Flag every copy of the value at once, so later hits on the same value are skipped
+        for (int i = index; i >= 0 && same(values[i], other); i--) {
+          found[i] = true;
+        }
+        for (int i = index + 1; i < values.length && same(values[i], other); i++) {
+          found[i] = true;
+        }
+      }
+    }
+    return countUnflagged(found);
+  }
+
+  /**
+   * Count the items that don't appear anywhere in another array, sorting {@code values} in place
+   *
+   * @param values the items to look for, which may be sorted in place
+   * @param others the items to look in, in any order
+   * @return the number of items of {@code values} missing from {@code others}
+   * @see #countMissing(double[], double[])
+   */
+  private static int countMissing(@NotNull int[] values, @NotNull int[] others) {
+    Arrays.sort(values);
+    boolean[] found = new boolean[values.length];
+    for (int other : others) {
+      int index = Arrays.binarySearch(values, other);
+      if (index >= 0 && !found[index]) {
+        for (int i = index; i >= 0 && values[i] == other; i--) {
+          found[i] = true;
+        }
+        for (int i = index + 1; i < values.length && values[i] == other; i++) {
+          found[i] = true;
+        }
+      }
+    }
+    return countUnflagged(found);
+  }
+
+  private static int countUnflagged(@NotNull boolean[] flags) {
+    int count = 0;
+    for (boolean flag : flags) {
+      if (!flag) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Compare doubles the same way their serialized forms are hashed, so that {@code NaN} equals
+   * itself but {@code 0.0} and {@code -0.0} differ
+   */
+  private static boolean same(double value1, double value2) {
+    return Double.doubleToLongBits(value1) == Double.doubleToLongBits(value2);
+  }
+
+  /**
+   * Retrieve the number of items in the modified array that are not in the original array
+   *
+   * @return the number of added items
+   */
+  public int getAddedCount() {
+    return addedCount;
+  }
+
+  /**
+   * Retrieve the number of items in the original array that are not in the modified array
+   *
+   * @return the number of removed items
+   */
+  public int getRemovedCount() {
+    return removedCount;
+  }
+
+  /**
+   * Check whether any items were added or removed
+   *
+   * @return {@code true} if any items were added or removed, {@code false} otherwise
+   */
+  public boolean isChanged() {
+    return addedCount != 0 || removedCount != 0;
+  }
+
+  /**
+   * Retrieve the number of contiguous index ranges whose items changed, which is always zero unless
+   * changed ranges were requested
+   *
+   * @return the number of changed ranges
+   */
+  public int getChangedRangeCount() {
+    return changedRanges.length / 2;
+  }
+
+  /**
+   * Retrieve the first index of a changed range
+   *
+   * @param range the range's position, from {@code 0} to {@link #getChangedRangeCount()} exclusive
+   * @return the first index (inclusive)
+   */
+  public int getChangedRangeStart(int range) {
+    return changedRanges[2 * range];
+  }
+
+  /**
+   * Retrieve the index after the end of a changed range
+   *
+   * @param range the range's position, from {@code 0} to {@link #getChangedRangeCount()} exclusive
+   * @return the last index (exclusive)
+   */
+  public int getChangedRangeEnd(int range) {
+    return changedRanges[2 * range + 1];
+  }
+
+  /** This class collects pairs of indices without boxing them */
+  private static class RangeBuilder {
+    private int[] bounds = new int[8];
+    private int size = 0;
+
+    void add(int start, int end) {
+      if (start >= end) {
+        return;
+      }
+      if (size + 2 > bounds.length) {
+        bounds = Arrays.copyOf(bounds, bounds.length * 2);
+      }
+      bounds[size++] = start;
+      bounds[size++] = end;
+    }
+
+    @NotNull
+    int[] toArray() {
+      return Arrays.copyOf(bounds, size);
+    }
+  }
+}
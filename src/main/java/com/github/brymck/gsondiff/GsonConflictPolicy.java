@@ -0,0 +1,19 @@
+package com.github.brymck.gsondiff;
+
+/** This enum represents how {@link GsonDiffer} handles values whose types conflict */
+public enum GsonConflictPolicy {
+  /** Throw an {@link IllegalStateException} naming the property and both types */
+  FAIL,
+  /**
+   * Record the conflict as a diff of {@link GsonValueType}s, retrievable with {@link
+   * GsonDiffResult#getTypeConflict(String)}
+   */
+  RECORD,
+  /**
+   * Treat the modified value as replacing the original, i.e. as a removal and an addition. Unless
+   * either value is an object, the property then has a diff of each type, e.g. both {@link
+   * GsonDiffResult#getStringDiff(String)} and {@link GsonDiffResult#getDoubleDiff(String)}. In
+   * three-way diffs, each side's replacement is classified against the other's type by type.
+   */
+  REPLACE
+}
@@ -1,5 +1,6 @@
 package com.github.brymck.gsondiff;
 
+import com.google.gson.annotations.JsonAdapter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -9,6 +10,7 @@ import org.jetbrains.annotations.Nullable;
  *
  * @param <T> the type of the diff to be stored
  */
+@JsonAdapter(GsonDiffTypeAdapterFactory.class)
 public class GsonDiff<@NotNull T> {
   private String key;
   private T left;
@@ -0,0 +1,45 @@
+package com.github.brymck.gsondiff;
+
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents the diffs between each consecutive pair of versions of an object, and
+ * optionally between its first and last versions
+ */
+public class GsonDiffHistory {
+  private List<GsonDiffResult> diffs;
+  private GsonDiffResult cumulativeDiff;
+
+  /**
+   * Create an instance of {@link GsonDiffHistory}
+   *
+   * @param diffs the diffs between each consecutive pair of versions, oldest first
+   * @param cumulativeDiff the diff between the first and last versions, if requested
+   */
+  public GsonDiffHistory(
+      @NotNull List<GsonDiffResult> diffs, @Nullable GsonDiffResult cumulativeDiff) {
+    this.diffs = Collections.unmodifiableList(diffs);
+    this.cumulativeDiff = cumulativeDiff;
+  }
+
+  /**
+   * Retrieve the diffs between each consecutive pair of versions
+   *
+   * @return the diffs, oldest first
+   */
+  public @NotNull List<GsonDiffResult> getDiffs() {
+    return diffs;
+  }
+
+  /**
+   * Retrieve the diff between the first and last versions
+   *
+   * @return the diff, or {@code null} if it was not requested
+   */
+  public @Nullable GsonDiffResult getCumulativeDiff() {
+    return cumulativeDiff;
+  }
+}
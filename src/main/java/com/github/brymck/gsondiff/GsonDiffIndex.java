@@ -0,0 +1,275 @@
+package com.github.brymck.gsondiff;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents a sorted, read-only index over every diff in a {@link GsonDiffResult},
+ * regardless of its type.
+ *
+ * <p>Keys are ordered lexicographically, so all diffs sharing a prefix such as {@code "address."}
+ * are contiguous. Prefix and range queries return views over the same backing arrays rather than
+ * copies, and counting the diffs within a view is a constant-time operation once the view has been
+ * located with a binary search.
+ *
+ * <p>A property usually has at most one diff, but it has one per type when its type changed under
+ * {@link GsonConflictPolicy#REPLACE}. Such diffs are adjacent, in the order strings, doubles,
+ * integers, booleans, and the property's name appears once for each of them.
+ */
+public class GsonDiffIndex implements Iterable<GsonDiff<?>> {
+  private final String[] keys;
+  private final GsonDiff<?>[] diffs;
+  private final int from;
+  private final int to;
+
+  /**
+   * Create an instance of {@link GsonDiffIndex}
+   *
+   * @param keys sorted property names
+   * @param diffs the diffs corresponding to each property name
+   * @param from the first index (inclusive) covered by this view
+   * @param to the last index (exclusive) covered by this view
+   */
+  private GsonDiffIndex(@NotNull String[] keys, @NotNull GsonDiff<?>[] diffs, int from, int to) {
+    this.keys = keys;
+    this.diffs = diffs;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * Create an index over the provided diffs
+   *
+   * @param channels maps of diffs keyed on property name
+   * @return a {@link GsonDiffIndex}
+   */
+  @SafeVarargs
+  static @NotNull GsonDiffIndex of(@NotNull Map<String, ? extends GsonDiff<?>>... channels) {
+    int size = 0;
+    for (Map<String, ? extends GsonDiff<?>> channel : channels) {
+      size += channel.size();
+    }
+    GsonDiff<?>[] diffs = new GsonDiff<?>[size];
+    int i = 0;
+    for (Map<String, ? extends GsonDiff<?>> channel : channels) {
+      for (GsonDiff<?> diff : channel.values()) {
+        diffs[i++] = diff;
+      }
+    }
+    Arrays.sort(diffs, (diff1, diff2) -> diff1.getKey().compareTo(diff2.getKey()));
+    String[] keys = new String[size];
+    for (i = 0; i < size; i++) {
+      keys[i] = diffs[i].getKey();
+    }
+    return new GsonDiffIndex(keys, diffs, 0, size);
+  }
+
+  /**
+   * Retrieve the diff for a property, whatever its type
+   *
+   * @param key the property's name
+   * @return the first diff for the property, or {@code null} if it is not in this index
+   */
+  public @Nullable GsonDiff<?> get(@NotNull String key) {
+    int index = lowerBound(key);
+    return (index < to && keys[index].equals(key)) ? diffs[index] : null;
+  }
+
+  /**
+   * Retrieve every diff for a property, of which there are several if its type changed
+   *
+   * @param key the property's name
+   * @return a view of the property's diffs
+   */
+  public @NotNull GsonDiffIndex getAll(@NotNull String key) {
+    return new GsonDiffIndex(keys, diffs, lowerBound(key), upperBound(key));
+  }
+
+  /**
+   * Check whether a property has a diff in this index
+   *
+   * @param key the property's name
+   * @return {@code true} if the property has a diff, {@code false} otherwise
+   */
+  public boolean containsKey(@NotNull String key) {
+    int index = lowerBound(key);
+    return index < to && keys[index].equals(key);
+  }
+
+  /**
+   * Retrieve a view of all diffs whose property names start with {@code prefix}
+   *
+   * @param prefix the prefix, e.g. {@code "address."}
+   * @return a view of the matching diffs
+   */
+  public @NotNull GsonDiffIndex withPrefix(@NotNull String prefix) {
+    int start = lowerBound(prefix);
+    return new GsonDiffIndex(keys, diffs, start, prefixEnd(prefix, start));
+  }
+
+  /**
+   * Retrieve a view of all diffs whose property names fall within a range
+   *
+   * @param fromKey the lowest property name (inclusive)
+   * @param toKey the highest property name (exclusive)
+   * @return a view of the matching diffs
+   */
+  public @NotNull GsonDiffIndex range(@NotNull String fromKey, @NotNull String toKey) {
+    int start = lowerBound(fromKey);
+    int end = Math.max(start, lowerBound(toKey));
+    return new GsonDiffIndex(keys, diffs, start, end);
+  }
+
+  /**
+   * Count the diffs for a property and everything nested beneath it, e.g. {@code "address"} counts
+   * {@code "address"} itself as well as {@code "address.city"} and {@code "address.zip"}
+   *
+   * @param path the property's name
+   * @return the number of diffs at or beneath the property
+   */
+  public int countSubtree(@NotNull String path) {
+    return withPrefix(path + ".").size() + upperBound(path) - lowerBound(path);
+  }
+
+  /**
+   * Retrieve the property names in this index in sorted order, once per diff
+   *
+   * @return a read-only view of the property names
+   */
+  public @NotNull List<String> keys() {
+    return new AbstractList<String>() {
+      @Override
+      public String get(int index) {
+        return keys[checkIndex(index)];
+      }
+
+      @Override
+      public int size() {
+        return to - from;
+      }
+    };
+  }
+
+  /**
+   * Retrieve the diffs in this index in order of property name
+   *
+   * @return a read-only view of the diffs
+   */
+  public @NotNull List<GsonDiff<?>> diffs() {
+    return new AbstractList<GsonDiff<?>>() {
+      @Override
+      public GsonDiff<?> get(int index) {
+        return diffs[checkIndex(index)];
+      }
+
+      @Override
+      public int size() {
+        return to - from;
+      }
+    };
+  }
+
+  /**
+   * Retrieve the number of diffs in this index
+   *
+   * @return the number of diffs
+   */
+  public int size() {
+    return to - from;
+  }
+
+  /**
+   * Check whether this index contains no diffs
+   *
+   * @return {@code true} if there are no diffs, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return from == to;
+  }
+
+  @Override
+  public @NotNull Iterator<GsonDiff<?>> iterator() {
+    return new Iterator<GsonDiff<?>>() {
+      private int index = from;
+
+      @Override
+      public boolean hasNext() {
+        return index < to;
+      }
+
+      @Override
+      public GsonDiff<?> next() {
+        if (index >= to) {
+          throw new NoSuchElementException();
+        }
+        return diffs[index++];
+      }
+    };
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= to - from) {
+      throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+    return from + index;
+  }
+
+  /**
+   * Find the first position within this view whose key is not less than {@code key}
+   *
+   * @param key the key to search for
+   * @return the position of the first copy of the key, or where it would be inserted
+   */
+  private int lowerBound(@NotNull String key) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (keys[middle].compareTo(key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Find the first position after {@code start} whose key doesn't start with {@code prefix}
+   *
+   * @param prefix the prefix to search for
+   * @param start the position of the first key that is not less than the prefix
+   * @return the position after the last key with the prefix
+   */
+  private int prefixEnd(@NotNull String prefix, int start) {
+    // Keys with the prefix are contiguous from the start, so they can be searched like booleans
+    int low = start;
+    int high = to;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (keys[middle].startsWith(prefix)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Find the first position within this view whose key is greater than {@code key}
+   *
+   * @param key the key to search for
+   * @return the position after the last copy of the key
+   */
+  private int upperBound(@NotNull String key) {
+    // No key sorts between the key itself and the key followed by the lowest possible character
+    return lowerBound(key + Character.MIN_VALUE);
+  }
+}
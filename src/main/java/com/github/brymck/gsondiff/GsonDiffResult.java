@@ -1,7 +1,9 @@
 package com.github.brymck.gsondiff;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -14,6 +16,8 @@ public class GsonDiffResult {
   private Map<String, GsonDiff<Double>> doubles;
   private Map<String, GsonDiff<Integer>> integers;
   private Map<String, GsonDiff<Boolean>> booleans;
+  private Map<String, GsonDiff<GsonValueType>> typeConflicts;
+  private transient GsonDiffIndex index;
 
   /**
    * Create an instance of {@link GsonDiffResult}
@@ -28,10 +32,29 @@ public class GsonDiffResult {
       Map<String, GsonDiff<Double>> doubles,
       Map<String, GsonDiff<Integer>> integers,
       Map<String, GsonDiff<Boolean>> booleans) {
+    this(strings, doubles, integers, booleans, new HashMap<>());
+  }
+
+  /**
+   * Create an instance of {@link GsonDiffResult}
+   *
+   * @param strings a list of string diffs
+   * @param doubles a list of double diffs
+   * @param integers a list of integer diffs
+   * @param booleans a list of boolean diffs
+   * @param typeConflicts a list of type conflicts
+   */
+  public GsonDiffResult(
+      Map<String, GsonDiff<String>> strings,
+      Map<String, GsonDiff<Double>> doubles,
+      Map<String, GsonDiff<Integer>> integers,
+      Map<String, GsonDiff<Boolean>> booleans,
+      Map<String, GsonDiff<GsonValueType>> typeConflicts) {
     this.strings = strings;
     this.doubles = doubles;
     this.integers = integers;
     this.booleans = booleans;
+    this.typeConflicts = typeConflicts;
   }
 
   /**
@@ -40,7 +63,12 @@ public class GsonDiffResult {
    * @param builder a finalized {@link Builder}
    */
   GsonDiffResult(Builder builder) {
-    this(builder.strings, builder.doubles, builder.integers, builder.booleans);
+    this(
+        builder.strings,
+        builder.doubles,
+        builder.integers,
+        builder.booleans,
+        builder.typeConflicts);
   }
 
   /**
@@ -87,13 +115,58 @@ public class GsonDiffResult {
     return booleans.get(key);
   }
 
+  /**
+   * Retrieve a type conflict recorded under {@link GsonConflictPolicy#RECORD}
+   *
+   * @param key the property's name
+   * @return a diff containing the property's name and the types on the left- and right-hand side
+   */
+  public @NotNull GsonDiff<@NotNull GsonValueType> getTypeConflict(@NotNull String key) {
+    return typeConflicts().get(key);
+  }
+
   /**
    * Retrieve the number of diffs
    *
    * @return the number of diffs
    */
   public int size() {
-    return strings.size() + doubles.size() + integers.size() + booleans.size();
+    return strings.size()
+        + doubles.size()
+        + integers.size()
+        + booleans.size()
+        + typeConflicts().size();
+  }
+
+  /**
+   * Retrieve a sorted index over all diffs, supporting prefix and range queries. The index is built
+   * on first use and shares its diffs with this result.
+   *
+   * @return a {@link GsonDiffIndex}
+   */
+  public @NotNull GsonDiffIndex index() {
+    if (index == null) {
+      index = GsonDiffIndex.of(strings, doubles, integers, booleans, typeConflicts());
+    }
+    return index;
+  }
+
+  /**
+   * Perform an action for every diff, in no particular order
+   *
+   * @param action the action to perform
+   */
+  void forEachDiff(@NotNull Consumer<GsonDiff<?>> action) {
+    strings.values().forEach(action);
+    doubles.values().forEach(action);
+    integers.values().forEach(action);
+    booleans.values().forEach(action);
+    typeConflicts().values().forEach(action);
+  }
+
+  private @NotNull Map<String, GsonDiff<GsonValueType>> typeConflicts() {
+    // Results serialized before type conflicts were recorded don't have any
+    return typeConflicts == null ? Collections.emptyMap() : typeConflicts;
   }
 
   /**
@@ -111,6 +184,7 @@ public class GsonDiffResult {
     Map<String, GsonDiff<Double>> doubles = new HashMap<>();
     Map<String, GsonDiff<Integer>> integers = new HashMap<>();
     Map<String, GsonDiff<Boolean>> booleans = new HashMap<>();
+    Map<String, GsonDiff<GsonValueType>> typeConflicts = new HashMap<>();
 
     /**
      * Add a string-based diff.
@@ -126,6 +200,17 @@ public class GsonDiffResult {
       return this;
     }
 
+    /**
+     * Add a string-based diff that stores the text both sides have in common only once.
+     *
+     * @param value a {@link GsonStringDiff}
+     * @return the updated {@code Builder}
+     */
+    public Builder put(@NotNull GsonStringDiff value) {
+      strings.put(value.getKey(), value);
+      return this;
+    }
+
     /**
      * Add a double-based diff.
      *
@@ -168,6 +253,43 @@ public class GsonDiffResult {
       return this;
     }
 
+    /**
+     * Add a type conflict.
+     *
+     * @param key the property's name
+     * @param left the left-hand side (before) type
+     * @param right the right-hand side (after) type
+     * @return the updated {@code Builder}
+     */
+    public Builder put(
+        @NotNull String key, @NotNull GsonValueType left, @NotNull GsonValueType right) {
+      GsonDiff<GsonValueType> value = new GsonDiff<>(key, left, right);
+      typeConflicts.put(key, value);
+      return this;
+    }
+
+    /**
+     * Check whether no diffs have been added
+     *
+     * @return {@code true} if no diffs have been added, {@code false} otherwise
+     */
+    boolean isEmpty() {
+      return strings.isEmpty()
+          && doubles.isEmpty()
+          && integers.isEmpty()
+          && booleans.isEmpty()
+          && typeConflicts.isEmpty();
+    }
+
+    /** Remove all diffs so that the builder can be reused */
+    void clear() {
+      strings.clear();
+      doubles.clear();
+      integers.clear();
+      booleans.clear();
+      typeConflicts.clear();
+    }
+
     /**
      * Build a {@link GsonDiffResult}
      *
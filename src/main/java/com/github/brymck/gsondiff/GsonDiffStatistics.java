@@ -0,0 +1,510 @@
+package com.github.brymck.gsondiff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class aggregates statistics about which properties change, how often and by how much, across
+ * any number of {@link GsonDiffResult}s using a fixed amount of memory.
+ *
+ * <p>Change frequencies are tracked approximately with a count-min sketch, which never
+ * underestimates a property's count, alongside a list of the most frequently changed properties.
+ * Numeric changes are recorded in histograms with logarithmically sized buckets. Results can be
+ * added concurrently from multiple threads without locking, and {@link Snapshot}s taken from
+ * aggregators with the same dimensions can be merged.
+ *
+ * <p>For example, to find the most frequently changed properties:
+ *
+ * <pre>{@code
+ * GsonDiffStatistics statistics = new GsonDiffStatistics();
+ * statistics.add(gsonDiffer.diff(gson, before, after));
+ * List<GsonDiffStatistics.PathCount> topPaths = statistics.snapshot().getTopPaths();
+ * }</pre>
+ */
+public class GsonDiffStatistics {
+  private static final int DEFAULT_WIDTH = 2048;
+  private static final int DEFAULT_DEPTH = 4;
+  private static final int DEFAULT_TOP_PATH_COUNT = 32;
+
+  private final int width;
+  private final int depth;
+  private final AtomicLongArray sketch;
+  private final AtomicReferenceArray<PathCount> topPaths;
+  private final AtomicLongArray doubleDeltas = new AtomicLongArray(DeltaHistogram.BUCKET_COUNT);
+  private final AtomicLongArray integerDeltas = new AtomicLongArray(DeltaHistogram.BUCKET_COUNT);
+  private final AtomicLong resultCount = new AtomicLong();
+  private final AtomicLong diffCount = new AtomicLong();
+
+  /** Create an instance of {@link GsonDiffStatistics} with default dimensions */
+  public GsonDiffStatistics() {
+    this(DEFAULT_WIDTH, DEFAULT_DEPTH, DEFAULT_TOP_PATH_COUNT);
+  }
+
+  /**
+   * Create an instance of {@link GsonDiffStatistics}
+   *
+   * @param width the number of counters in each row of the sketch, where larger values reduce
+   *     overestimation
+   * @param depth the number of rows in the sketch, where larger values reduce the probability of
+   *     overestimation
+   * @param topPathCount the number of most frequently changed properties to track
+   * @throws IllegalArgumentException when any dimension is not positive
+   */
+  public GsonDiffStatistics(int width, int depth, int topPathCount) {
+    if (width <= 0 || depth <= 0 || topPathCount <= 0) {
+      String message =
+          String.format("Dimensions %d, %d and %d must be positive", width, depth, topPathCount);
+      throw new IllegalArgumentException(message);
+    }
+    this.width = width;
+    this.depth = depth;
+    this.sketch = new AtomicLongArray(width * depth);
+    this.topPaths = new AtomicReferenceArray<>(topPathCount);
+  }
+
+  /**
+   * Record every diff in a result
+   *
+   * @param result a {@link GsonDiffResult}
+   */
+  public void add(@NotNull GsonDiffResult result) {
+    resultCount.incrementAndGet();
+    result.forEachDiff(this::add);
+  }
+
+  /**
+   * Record a single diff
+   *
+   * @param diff a {@link GsonDiff}
+   */
+  public void add(@NotNull GsonDiff<?> diff) {
+    diffCount.incrementAndGet();
+    String key = diff.getKey();
+    long hash = Hashing.hash(key);
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, sketch.incrementAndGet(sketchIndex(hash, row, width)));
+    }
+    offerTopPath(key, estimate);
+    if (diff instanceof GsonStringDiff) {
+      // Strings have no deltas, and rebuilding compact values would copy the whole property
+      return;
+    }
+    Object left = diff.getLeft();
+    Object right = diff.getRight();
+    if (left instanceof Double && right instanceof Double) {
+      DeltaHistogram.record(doubleDeltas, (Double) right - (Double) left);
+    } else if (left instanceof Integer && right instanceof Integer) {
+      DeltaHistogram.record(integerDeltas, (Integer) right - (Integer) left);
+    }
+  }
+
+  /**
+   * Take a point-in-time copy of the statistics. Updates that happen concurrently may or may not be
+   * included.
+   *
+   * @return a {@link Snapshot}
+   */
+  public @NotNull Snapshot snapshot() {
+    long[] counters = new long[sketch.length()];
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] = sketch.get(i);
+    }
+    Map<String, PathCount> pathCounts = new HashMap<>();
+    for (int i = 0; i < topPaths.length(); i++) {
+      PathCount pathCount = topPaths.get(i);
+      if (pathCount != null) {
+        pathCounts.merge(pathCount.getPath(), pathCount, PathCount::max);
+      }
+    }
+    return new Snapshot(
+        width,
+        depth,
+        topPaths.length(),
+        counters,
+        sortedTopPaths(pathCounts.values(), topPaths.length()),
+        DeltaHistogram.copyOf(doubleDeltas),
+        DeltaHistogram.copyOf(integerDeltas),
+        resultCount.get(),
+        diffCount.get());
+  }
+
+  /**
+   * Add a property to the most frequently changed list if its estimated count is high enough
+   *
+   * @param path the property's name
+   * @param estimate the estimated number of times the property has changed
+   */
+  private void offerTopPath(@NotNull String path, long estimate) {
+    PathCount candidate = new PathCount(path, estimate);
+    retry:
+    while (true) {
+      int minimumIndex = 0;
+      PathCount minimum = topPaths.get(0);
+      for (int i = 0; i < topPaths.length(); i++) {
+        PathCount current = topPaths.get(i);
+        if (current != null && current.getPath().equals(path)) {
+          if (current.getCount() >= estimate || topPaths.compareAndSet(i, current, candidate)) {
+            return;
+          }
+          // Another thread updated this slot in the meantime
+          continue retry;
+        }
+        if (countOf(current) < countOf(minimum)) {
+          minimumIndex = i;
+          minimum = current;
+        }
+      }
+      if (countOf(minimum) >= estimate
+          || topPaths.compareAndSet(minimumIndex, minimum, candidate)) {
+        return;
+      }
+    }
+  }
+
+  private static long countOf(@Nullable PathCount pathCount) {
+    return pathCount == null ? 0 : pathCount.getCount();
+  }
+
+  /**
+   * Locate a counter in the sketch, deriving each row's hash from the two halves of a single 64-bit
+   * hash
+   *
+   * @param hash the property name's hash
+   * @param row the row of the sketch
+   * @param width the number of counters in each row
+   * @return the counter's position
+   */
+  private static int sketchIndex(long hash, int row, int width) {
+    int combined = (int) hash + row * (int) (hash >>> 32);
+    return row * width + ((combined & Integer.MAX_VALUE) % width);
+  }
+
+  private static @NotNull List<PathCount> sortedTopPaths(
+      @NotNull Iterable<PathCount> pathCounts, int limit) {
+    List<PathCount> sorted = new ArrayList<>();
+    pathCounts.forEach(sorted::add);
+    sorted.sort(
+        (pathCount1, pathCount2) -> {
+          int comparison = Long.compare(pathCount2.getCount(), pathCount1.getCount());
+          return comparison != 0
+              ? comparison
+              : pathCount1.getPath().compareTo(pathCount2.getPath());
+        });
+    return Collections.unmodifiableList(
+        new ArrayList<>(sorted.subList(0, Math.min(limit, sorted.size()))));
+  }
+
+  /** This class represents the estimated number of times a property has changed */
+  public static class PathCount {
+    private final String path;
+    private final long count;
+
+    /**
+     * Create an instance of {@link PathCount}
+     *
+     * @param path the property's name
+     * @param count the estimated number of changes
+     */
+    PathCount(@NotNull String path, long count) {
+      this.path = path;
+      this.count = count;
+    }
+
+    /**
+     * Retrieve the property's name
+     *
+     * @return the property's name
+     */
+    public @NotNull String getPath() {
+      return path;
+    }
+
+    /**
+     * Retrieve the estimated number of changes
+     *
+     * @return the estimated number of changes
+     */
+    public long getCount() {
+      return count;
+    }
+
+    private static @NotNull PathCount max(@NotNull PathCount first, @NotNull PathCount second) {
+      return first.count >= second.count ? first : second;
+    }
+  }
+
+  /**
+   * This class represents a histogram of numeric changes, i.e. the right-hand side minus the
+   * left-hand side. Buckets are split by sign and by powers of two of the change's magnitude.
+   */
+  public static class DeltaHistogram {
+    private static final int MIN_EXPONENT = -16;
+    private static final int EXPONENT_COUNT = 64;
+    private static final int ZERO_BUCKET = EXPONENT_COUNT;
+    static final int BUCKET_COUNT = 2 * EXPONENT_COUNT + 1;
+
+    private final long[] counts;
+
+    private DeltaHistogram(@NotNull long[] counts) {
+      this.counts = counts;
+    }
+
+    private static @NotNull DeltaHistogram copyOf(@NotNull AtomicLongArray buckets) {
+      long[] counts = new long[buckets.length()];
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = buckets.get(i);
+      }
+      return new DeltaHistogram(counts);
+    }
+
+    private static void record(@NotNull AtomicLongArray buckets, double delta) {
+      buckets.incrementAndGet(bucketOf(delta));
+    }
+
+    private static int bucketOf(double delta) {
+      double magnitude = Math.abs(delta);
+      if (magnitude == 0.0 || Double.isNaN(magnitude)) {
+        return ZERO_BUCKET;
+      }
+      int exponent = Math.getExponent(magnitude) - MIN_EXPONENT;
+      int offset = Math.max(0, Math.min(EXPONENT_COUNT - 1, exponent));
+      return delta < 0 ? ZERO_BUCKET - 1 - offset : ZERO_BUCKET + 1 + offset;
+    }
+
+    /**
+     * Retrieve the number of buckets
+     *
+     * @return the number of buckets
+     */
+    public int getBucketCount() {
+      return counts.length;
+    }
+
+    /**
+     * Retrieve the number of changes recorded in a bucket
+     *
+     * @param bucket the bucket's position, from {@code 0} to {@link #getBucketCount()} exclusive
+     * @return the number of changes in the bucket
+     */
+    public long getCount(int bucket) {
+      return counts[bucket];
+    }
+
+    /**
+     * Retrieve the lowest change counted by a bucket
+     *
+     * @param bucket the bucket's position
+     * @return the bucket's lower bound
+     */
+    public double getLowerBound(int bucket) {
+      if (bucket < ZERO_BUCKET) {
+        return -upperMagnitude(ZERO_BUCKET - 1 - bucket);
+      } else if (bucket > ZERO_BUCKET) {
+        return lowerMagnitude(bucket - ZERO_BUCKET - 1);
+      } else {
+        return 0.0;
+      }
+    }
+
+    /**
+     * Retrieve the highest change counted by a bucket
+     *
+     * @param bucket the bucket's position
+     * @return the bucket's upper bound
+     */
+    public double getUpperBound(int bucket) {
+      if (bucket < ZERO_BUCKET) {
+        return -lowerMagnitude(ZERO_BUCKET - 1 - bucket);
+      } else if (bucket > ZERO_BUCKET) {
+        return upperMagnitude(bucket - ZERO_BUCKET - 1);
+      } else {
+        return 0.0;
+      }
+    }
+
+    /**
+     * Retrieve the total number of changes recorded
+     *
+     * @return the total number of changes
+     */
+    public long getTotalCount() {
+      long total = 0;
+      for (long count : counts) {
+        total += count;
+      }
+      return total;
+    }
+
+    private @NotNull DeltaHistogram merge(@NotNull DeltaHistogram other) {
+      long[] merged = new long[counts.length];
+      for (int i = 0; i < merged.length; i++) {
+        merged[i] = counts[i] + other.counts[i];
+      }
+      return new DeltaHistogram(merged);
+    }
+
+    private static double lowerMagnitude(int offset) {
+      return offset == 0 ? 0.0 : Math.scalb(1.0, offset + MIN_EXPONENT);
+    }
+
+    private static double upperMagnitude(int offset) {
+      return offset == EXPONENT_COUNT - 1
+          ? Double.POSITIVE_INFINITY
+          : Math.scalb(1.0, offset + MIN_EXPONENT + 1);
+    }
+  }
+
+  /** This class represents an immutable, mergeable copy of a {@link GsonDiffStatistics} */
+  public static class Snapshot {
+    private final int width;
+    private final int depth;
+    private final int topPathCount;
+    private final long[] sketch;
+    private final List<PathCount> topPaths;
+    private final DeltaHistogram doubleDeltas;
+    private final DeltaHistogram integerDeltas;
+    private final long resultCount;
+    private final long diffCount;
+
+    private Snapshot(
+        int width,
+        int depth,
+        int topPathCount,
+        @NotNull long[] sketch,
+        @NotNull List<PathCount> topPaths,
+        @NotNull DeltaHistogram doubleDeltas,
+        @NotNull DeltaHistogram integerDeltas,
+        long resultCount,
+        long diffCount) {
+      this.width = width;
+      this.depth = depth;
+      this.topPathCount = topPathCount;
+      this.sketch = sketch;
+      this.topPaths = topPaths;
+      this.doubleDeltas = doubleDeltas;
+      this.integerDeltas = integerDeltas;
+      this.resultCount = resultCount;
+      this.diffCount = diffCount;
+    }
+
+    /**
+     * Estimate the number of times a property has changed. The estimate is never lower than the
+     * true count.
+     *
+     * @param path the property's name
+     * @return the estimated number of changes
+     */
+    public long estimateCount(@NotNull String path) {
+      long hash = Hashing.hash(path);
+      long estimate = Long.MAX_VALUE;
+      for (int row = 0; row < depth; row++) {
+        estimate = Math.min(estimate, sketch[sketchIndex(hash, row, width)]);
+      }
+      return estimate;
+    }
+
+    /**
+     * Retrieve the most frequently changed properties, most frequent first
+     *
+     * @return the most frequently changed properties
+     */
+    public @NotNull List<PathCount> getTopPaths() {
+      return topPaths;
+    }
+
+    /**
+     * Retrieve a histogram of changes to double-based properties
+     *
+     * @return a {@link DeltaHistogram}
+     */
+    public @NotNull DeltaHistogram getDoubleDeltas() {
+      return doubleDeltas;
+    }
+
+    /**
+     * Retrieve a histogram of changes to integer-based properties, i.e. the number of items added
+     * to and removed from lists
+     *
+     * @return a {@link DeltaHistogram}
+     */
+    public @NotNull DeltaHistogram getIntegerDeltas() {
+      return integerDeltas;
+    }
+
+    /**
+     * Retrieve the number of results recorded
+     *
+     * @return the number of results
+     */
+    public long getResultCount() {
+      return resultCount;
+    }
+
+    /**
+     * Retrieve the number of diffs recorded
+     *
+     * @return the number of diffs
+     */
+    public long getDiffCount() {
+      return diffCount;
+    }
+
+    /**
+     * Combine this snapshot with another taken from an aggregator with the same dimensions
+     *
+     * @param other another {@link Snapshot}
+     * @return a {@link Snapshot} covering both
+     * @throws IllegalArgumentException when the dimensions differ
+     */
+    public @NotNull Snapshot merge(@NotNull Snapshot other) {
+      if (width != other.width || depth != other.depth) {
+        String message =
+            String.format(
+                "Dimensions %dx%d and %dx%d differ", width, depth, other.width, other.depth);
+        throw new IllegalArgumentException(message);
+      }
+      long[] mergedSketch = new long[sketch.length];
+      for (int i = 0; i < mergedSketch.length; i++) {
+        mergedSketch[i] = sketch[i] + other.sketch[i];
+      }
+      Snapshot merged =
+          new Snapshot(
+              width,
+              depth,
+              Math.max(topPathCount, other.topPathCount),
+              mergedSketch,
+              Collections.emptyList(),
+              doubleDeltas.merge(other.doubleDeltas),
+              integerDeltas.merge(other.integerDeltas),
+              resultCount + other.resultCount,
+              diffCount + other.diffCount);
+      // Re-estimate every candidate against the combined sketch
+      Map<String, PathCount> pathCounts = new HashMap<>();
+      List<PathCount> candidates = new ArrayList<>(topPaths);
+      candidates.addAll(other.topPaths);
+      for (PathCount candidate : candidates) {
+        String path = candidate.getPath();
+        pathCounts.computeIfAbsent(path, key -> new PathCount(key, merged.estimateCount(key)));
+      }
+      return new Snapshot(
+          merged.width,
+          merged.depth,
+          merged.topPathCount,
+          merged.sketch,
+          sortedTopPaths(pathCounts.values(), merged.topPathCount),
+          merged.doubleDeltas,
+          merged.integerDeltas,
+          merged.resultCount,
+          merged.diffCount);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.github.brymck.gsondiff;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class serializes a {@link GsonDiff} as its {@code key}, {@code left} and {@code right}
+ * values. A {@link GsonStringDiff} is instead written in its compact form, tagged with {@code
+ * "compact": true}, so that its serialized size is one copy of the common text plus the differing
+ * sections and it is read back as a {@link GsonStringDiff}.
+ */
+class GsonDiffTypeAdapterFactory implements TypeAdapterFactory {
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> TypeAdapter<T> create(@NotNull Gson gson, @NotNull TypeToken<T> type) {
+    Type valueType = Object.class;
+    if (type.getType() instanceof ParameterizedType) {
+      valueType = ((ParameterizedType) type.getType()).getActualTypeArguments()[0];
+    }
+    TypeAdapter<Object> valueAdapter =
+        (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(valueType));
+    return (TypeAdapter<T>) new GsonDiffTypeAdapter(valueAdapter).nullSafe();
+  }
+
+  /** This class reads and writes a {@link GsonDiff} given an adapter for its values */
+  private static class GsonDiffTypeAdapter extends TypeAdapter<GsonDiff<Object>> {
+    private final TypeAdapter<Object> valueAdapter;
+
+    GsonDiffTypeAdapter(@NotNull TypeAdapter<Object> valueAdapter) {
+      this.valueAdapter = valueAdapter;
+    }
+
+    @Override
+    public void write(@NotNull JsonWriter out, @NotNull GsonDiff<Object> diff) throws IOException {
+      out.beginObject();
+      out.name("key").value(diff.getKey());
+      GsonDiff<?> anyDiff = diff;
+      if (anyDiff instanceof GsonStringDiff) {
+        GsonStringDiff stringDiff = (GsonStringDiff) anyDiff;
+        out.name("compact").value(true);
+        out.name("common").value(stringDiff.getCommon());
+        out.name("prefixLength").value(stringDiff.getPrefixLength());
+        out.name("leftMiddle").value(stringDiff.getLeftMiddle());
+        out.name("rightMiddle").value(stringDiff.getRightMiddle());
+        out.endObject();
+        return;
+      }
+      out.name("left");
+      valueAdapter.write(out, diff.getLeft());
+      out.name("right");
+      valueAdapter.write(out, diff.getRight());
+      out.endObject();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NotNull GsonDiff<Object> read(@NotNull JsonReader in) throws IOException {
+      String key = null;
+      Object left = null;
+      Object right = null;
+      boolean compact = false;
+      String common = null;
+      int prefixLength = 0;
+      String leftMiddle = null;
+      String rightMiddle = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "key":
+            key = in.nextString();
+            break;
+          case "compact":
+            compact = in.nextBoolean();
+            break;
+          case "common":
+            common = in.nextString();
+            break;
+          case "prefixLength":
+            prefixLength = in.nextInt();
+            break;
+          case "leftMiddle":
+            leftMiddle = in.nextString();
+            break;
+          case "rightMiddle":
+            rightMiddle = in.nextString();
+            break;
+          case "left":
+            left = valueAdapter.read(in);
+            break;
+          case "right":
+            right = valueAdapter.read(in);
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      if (compact) {
+        if (key == null || common == null || leftMiddle == null || rightMiddle == null) {
+          throw new JsonParseException("Compact string diff is missing a property");
+        }
+        GsonDiff<?> stringDiff =
+            new GsonStringDiff(key, common, prefixLength, leftMiddle, rightMiddle);
+        return (GsonDiff<Object>) stringDiff;
+      }
+      return new GsonDiff<>(key, left, right);
+    }
+  }
+}
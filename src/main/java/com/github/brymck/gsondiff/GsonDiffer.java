@@ -1,7 +1,11 @@
 package com.github.brymck.gsondiff;
 
 import com.google.gson.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.jetbrains.annotations.NotNull;
@@ -28,6 +32,33 @@ import org.jetbrains.annotations.Nullable;
  * @author Bryan McKelvey
  */
 public class GsonDiffer {
+  private final int compactStringThreshold;
+  private final GsonConflictPolicy conflictPolicy;
+
+  /** Create an instance of {@link GsonDiffer} with default options */
+  public GsonDiffer() {
+    this(new Builder());
+  }
+
+  /**
+   * Create an instance of {@link GsonDiffer}
+   *
+   * @param builder a finalized {@link Builder}
+   */
+  private GsonDiffer(@NotNull Builder builder) {
+    this.compactStringThreshold = builder.compactStringThreshold;
+    this.conflictPolicy = builder.conflictPolicy;
+  }
+
+  /**
+   * Create a builder class to configure a {@link GsonDiffer}
+   *
+   * @return a {@link Builder}
+   */
+  public static @NotNull Builder builder() {
+    return new Builder();
+  }
+
   /**
    * Recursively diff one object with another, producing a {@link GsonDiffResult} containing a list
    * of differing keys and their values.
@@ -37,7 +68,8 @@ public class GsonDiffer {
    * @param after the modified object
    * @param <T> the class of the input and output objects
    * @return diffs between the two
-   * @throws IllegalStateException when there is a type conflict
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
    */
   public <T> GsonDiffResult diff(@NotNull Gson gson, @NotNull T before, @NotNull T after)
       throws IllegalStateException {
@@ -47,6 +79,242 @@ public class GsonDiffer {
     return diff(diffBuilder, beforeElement, afterElement, "");
   }
 
+  /**
+   * Diff each version of an object with the next, producing a {@link GsonDiffHistory} containing
+   * one {@link GsonDiffResult} per consecutive pair.
+   *
+   * <p>Each version is serialized exactly once. Subtrees that are unchanged from one version to the
+   * next are shared between them, so they are skipped outright whenever they are compared again,
+   * e.g. by the optional cumulative diff between the first and last versions.
+   *
+   * @param gson a {@link Gson} instance
+   * @param versions the versions of the object, oldest first
+   * @param includeCumulativeDiff whether to also diff the first version with the last
+   * @param <T> the class of the input objects
+   * @return diffs between each consecutive pair of versions
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
+   */
+  public <T> @NotNull GsonDiffHistory diffHistory(
+      @NotNull Gson gson, @NotNull List<T> versions, boolean includeCumulativeDiff)
+      throws IllegalStateException {
+    List<GsonDiffResult> diffs = new ArrayList<>(Math.max(0, versions.size() - 1));
+    JsonObject first = null;
+    JsonObject previous = null;
+    for (T version : versions) {
+      JsonObject current = gson.toJsonTree(version).getAsJsonObject();
+      if (previous == null) {
+        first = current;
+      } else {
+        GsonDiffResult.Builder diffBuilder = new GsonDiffResult.Builder();
+        diffAndShare(diffBuilder, previous, current, "");
+        diffs.add(diffBuilder.build());
+      }
+      previous = current;
+    }
+    GsonDiffResult cumulativeDiff = null;
+    if (includeCumulativeDiff) {
+      cumulativeDiff = (first == null) ? GsonDiffResult.builder().build() : diff(first, previous);
+    }
+    return new GsonDiffHistory(diffs, cumulativeDiff);
+  }
+
+  /**
+   * Diff every object in one map with the object under the same key in another, producing a {@link
+   * GsonMapDiffResult} containing the added and removed entries and a {@link GsonDiffResult} for
+   * each changed entry.
+   *
+   * <p>Entries are split across the common {@link java.util.concurrent.ForkJoinPool} and diffed in
+   * parallel, so the {@link Gson} instance must be safe to share between threads, as it is unless
+   * configured with stateful type adapters. Entries whose values are the same instance in both maps
+   * are skipped without being serialized, and nothing is stored for entries that didn't change.
+   * Like properties, entries with {@code null} values are treated as missing, whereas {@code null}
+   * keys are compared like any other key.
+   *
+   * @param gson a {@link Gson} instance
+   * @param before the original map
+   * @param after the modified map
+   * @param <K> the class of the maps' keys
+   * @param <T> the class of the maps' values
+   * @return diffs between the two
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
+   */
+  public <K, T> @NotNull GsonMapDiffResult<K, T> diffMaps(
+      @NotNull Gson gson, @NotNull Map<K, ? extends T> before, @NotNull Map<K, ? extends T> after)
+      throws IllegalStateException {
+    // Each thread collects into its own maps, which are merged afterward, so null keys are kept
+    MapDiffState<K, T> state =
+        after
+            .entrySet()
+            .parallelStream()
+            .collect(
+                MapDiffState::new,
+                (partialState, entry) -> {
+                  K key = entry.getKey();
+                  T beforeValue = before.get(key);
+                  T afterValue = entry.getValue();
+                  if (beforeValue == afterValue) {
+                    return;
+                  } else if (beforeValue == null) {
+                    partialState.added.put(key, afterValue);
+                  } else if (afterValue != null) {
+                    GsonDiffResult result =
+                        diff(
+                            gson.toJsonTree(beforeValue).getAsJsonObject(),
+                            gson.toJsonTree(afterValue).getAsJsonObject());
+                    if (result.size() != 0) {
+                      partialState.changed.put(key, result);
+                    }
+                  }
+                },
+                MapDiffState::addAll);
+    Map<K, T> removed =
+        before
+            .entrySet()
+            .parallelStream()
+            .filter(entry -> entry.getValue() != null && after.get(entry.getKey()) == null)
+            .collect(
+                HashMap::new,
+                (map, entry) -> map.put(entry.getKey(), entry.getValue()),
+                Map::putAll);
+    return new GsonMapDiffResult<>(state.added, removed, state.changed);
+  }
+
+  /**
+   * Diff a tracked object with its state when last committed, producing the same {@link
+   * GsonDiffResult} as a full diff would while only comparing the properties marked as dirty.
+   *
+   * <p>The result is only complete if every change since the last commit was either made through
+   * the {@link GsonTrackedObject} or reported with {@link GsonTrackedObject#markDirty(String)}.
+   *
+   * @param trackedObject the tracked object
+   * @return diffs between the object's committed and current states
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
+   */
+  public @NotNull GsonDiffResult diff(@NotNull GsonTrackedObject trackedObject)
+      throws IllegalStateException {
+    JsonObject before = trackedObject.getBaseline();
+    JsonObject after = trackedObject.getObject();
+    GsonDiffResult.Builder diffBuilder = new GsonDiffResult.Builder();
+    for (String path : trackedObject.getDirtyPaths()) {
+      if (path.isEmpty()) {
+        return diff(before, after);
+      }
+      String[] segments = path.split("\\.", -1);
+      String fullKey = segments[0];
+      JsonElement beforeElement = before.get(fullKey);
+      JsonElement afterElement = after.get(fullKey);
+      // Descend only while both sides are objects, since otherwise a full diff would compare the
+      // values at this level rather than their nested properties
+      for (int i = 1;
+          i < segments.length
+              && beforeElement != null
+              && beforeElement.isJsonObject()
+              && afterElement != null
+              && afterElement.isJsonObject();
+          i++) {
+        fullKey = fullKey + "." + segments[i];
+        beforeElement = beforeElement.getAsJsonObject().get(segments[i]);
+        afterElement = afterElement.getAsJsonObject().get(segments[i]);
+      }
+      diff(diffBuilder, fullKey, beforeElement, afterElement);
+    }
+    return diffBuilder.build();
+  }
+
+  /**
+   * Lazily diff one object with another, producing a {@link GsonDiffResult} that only compares the
+   * properties it is asked about.
+   *
+   * <p>Each call to a getter such as {@link GsonDiffResult#getStringDiff(String)} walks both
+   * objects along that property's path and remembers the outcome. The full diff is only computed
+   * when it is actually needed, e.g. by {@link GsonDiffResult#size()} or {@link
+   * GsonDiffResult#index()}. This suits callers that only read a handful of properties from large
+   * objects.
+   *
+   * @param gson a {@link Gson} instance
+   * @param before the original object
+   * @param after the modified object
+   * @param <T> the class of the input and output objects
+   * @return a lazily evaluated diff between the two
+   */
+  public <T> @NotNull GsonDiffResult diffLazily(
+      @NotNull Gson gson, @NotNull T before, @NotNull T after) {
+    JsonObject beforeElement = gson.toJsonTree(before).getAsJsonObject();
+    JsonObject afterElement = gson.toJsonTree(after).getAsJsonObject();
+    return new LazyGsonDiffResult(this, beforeElement, afterElement);
+  }
+
+  /**
+   * Diff two modified versions of an object against their common base in a single pass, producing a
+   * {@link GsonThreeWayDiffResult} that classifies each changed key by which side changed it and
+   * whether the changes conflict.
+   *
+   * @param gson a {@link Gson} instance
+   * @param base the original object
+   * @param left one modified version of the object
+   * @param right another modified version of the object
+   * @param <T> the class of the input objects
+   * @return three-way diffs between the three
+   * @throws IllegalStateException when there is a type conflict between any two of the objects
+   *     under {@link GsonConflictPolicy#FAIL}
+   */
+  public <T> @NotNull GsonThreeWayDiffResult threeWayDiff(
+      @NotNull Gson gson, @NotNull T base, @NotNull T left, @NotNull T right)
+      throws IllegalStateException {
+    JsonObject baseElement = gson.toJsonTree(base).getAsJsonObject();
+    JsonObject leftElement = gson.toJsonTree(left).getAsJsonObject();
+    JsonObject rightElement = gson.toJsonTree(right).getAsJsonObject();
+    ThreeWayState state = new ThreeWayState();
+    threeWayDiff(state, baseElement, leftElement, rightElement, "");
+    return state.diffBuilder.build();
+  }
+
+  /**
+   * Diff two arrays of doubles directly, without converting each item into a {@link JsonElement}.
+   * Items are counted as added or removed exactly as they would be for lists within objects.
+   *
+   * @param before the original array
+   * @param after the modified array
+   * @param trackChangedRanges whether to also record which index ranges changed
+   * @return a {@link GsonArrayDiff}
+   */
+  public @NotNull GsonArrayDiff diffArrays(
+      @NotNull double[] before, @NotNull double[] after, boolean trackChangedRanges) {
+    return GsonArrayDiff.of(before, after, trackChangedRanges);
+  }
+
+  /**
+   * Diff two arrays of integers directly, without converting each item into a {@link JsonElement}.
+   * Items are counted as added or removed exactly as they would be for lists within objects.
+   *
+   * @param before the original array
+   * @param after the modified array
+   * @param trackChangedRanges whether to also record which index ranges changed
+   * @return a {@link GsonArrayDiff}
+   */
+  public @NotNull GsonArrayDiff diffArrays(
+      @NotNull int[] before, @NotNull int[] after, boolean trackChangedRanges) {
+    return GsonArrayDiff.of(before, after, trackChangedRanges);
+  }
+
+  /**
+   * Recursively diff one object with another, producing a {@link GsonDiffResult} containing a list
+   * of differing keys and their values.
+   *
+   * @param before the original object
+   * @param after the modified object
+   * @return diffs between the two
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
+   */
+  @NotNull
+  GsonDiffResult diff(@NotNull JsonObject before, @NotNull JsonObject after) {
+    return diff(new GsonDiffResult.Builder(), before, after, "");
+  }
+
   /**
    * Recursively diff one object with another, producing a {@link GsonDiffResult} containing a list
    * of differing keys and their values.
@@ -56,75 +324,401 @@ public class GsonDiffer {
    * @param after the modified object
    * @param prefix the key prefix
    * @return diffs between the two
-   * @throws IllegalStateException when there is a type conflict
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
    */
   private @NotNull GsonDiffResult diff(
       @NotNull GsonDiffResult.Builder diffBuilder,
       @NotNull JsonObject before,
       @NotNull JsonObject after,
       @NotNull String prefix) {
-    Set<String> seenKeys = new HashSet<>();
+    Iterator<Map.Entry<String, JsonElement>> afterEntries = after.entrySet().iterator();
+    Iterator<Map.Entry<String, JsonElement>> beforeEntries = before.entrySet().iterator();
+    // Objects of the same class usually list their properties in the same order, so walk both in
+    // lockstep and only fall back to looking keys up from the first mismatch onward. Keys are
+    // unique, so none of the keys matched so far can turn up again later on either side.
+    while (afterEntries.hasNext() && beforeEntries.hasNext()) {
+      Map.Entry<String, JsonElement> afterEntry = afterEntries.next();
+      Map.Entry<String, JsonElement> beforeEntry = beforeEntries.next();
+      String afterKey = afterEntry.getKey();
+      String beforeKey = beforeEntry.getKey();
+      if (afterKey.equals(beforeKey)) {
+        diff(diffBuilder, prefix + afterKey, beforeEntry.getValue(), afterEntry.getValue());
+      } else {
+        diff(diffBuilder, prefix + afterKey, before.get(afterKey), afterEntry.getValue());
+        if (!after.has(beforeKey)) {
+          createRemovedDiffItems(diffBuilder, prefix + beforeKey, beforeEntry.getValue());
+        }
+        break;
+      }
+    }
+    while (afterEntries.hasNext()) {
+      Map.Entry<String, JsonElement> entry = afterEntries.next();
+      String afterKey = entry.getKey();
+      diff(diffBuilder, prefix + afterKey, before.get(afterKey), entry.getValue());
+    }
+    while (beforeEntries.hasNext()) {
+      Map.Entry<String, JsonElement> entry = beforeEntries.next();
+      String beforeKey = entry.getKey();
+      if (!after.has(beforeKey)) {
+        createRemovedDiffItems(diffBuilder, prefix + beforeKey, entry.getValue());
+      }
+    }
+    return diffBuilder.build();
+  }
+
+  /**
+   * Diff a single property, recursing into objects as necessary.
+   *
+   * @param diffBuilder a {@link GsonDiffResult.Builder}
+   * @param fullKey the property's full name
+   * @param beforeElement the original value, or {@code null} if it was missing
+   * @param afterElement the modified value, or {@code null} if it is missing
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
+   */
+  void diff(
+      @NotNull GsonDiffResult.Builder diffBuilder,
+      @NotNull String fullKey,
+      @Nullable JsonElement beforeElement,
+      @Nullable JsonElement afterElement) {
+    if (beforeElement == afterElement) {
+      // Shared subtrees, e.g. from a version history, can't differ
+      return;
+    } else if (afterElement == null) {
+      if (beforeElement != null) {
+        createRemovedDiffItems(diffBuilder, fullKey, beforeElement);
+      }
+    } else if (beforeElement == null) {
+      createAddedDiffItems(diffBuilder, fullKey, afterElement);
+    } else if (typesConflict(beforeElement, afterElement)) {
+      // Handle conflicts with different logic for arrays, objects and primitives
+      createTypeConflictDiffItems(diffBuilder, fullKey, beforeElement, afterElement);
+    } else if (beforeElement.isJsonNull()) {
+      createAddedDiffItems(diffBuilder, fullKey, afterElement);
+    } else if (afterElement.isJsonNull()) {
+      createRemovedDiffItems(diffBuilder, fullKey, beforeElement);
+    } else if (afterElement.isJsonArray()) {
+      // Extend arrays
+      JsonArray beforeArray = beforeElement.getAsJsonArray();
+      JsonArray afterArray = afterElement.getAsJsonArray();
+      if (beforeArray.equals(afterArray)) {
+        // Identical lists can't add or remove anything, so skip hashing every item
+        return;
+      }
+      Set<JsonElement> beforeArraySet = new HashSet<>();
+      Set<JsonElement> afterArraySet = new HashSet<>();
+      beforeArray.forEach(beforeArraySet::add);
+      afterArray.forEach(afterArraySet::add);
+      int addedCount = 0;
+      for (JsonElement element : afterArray) {
+        if (!beforeArraySet.contains(element)) {
+          addedCount++;
+        }
+      }
+      int removedCount = 0;
+      for (JsonElement element : beforeArray) {
+        if (!afterArraySet.contains(element)) {
+          removedCount++;
+        }
+      }
+      if (addedCount != 0 || removedCount != 0) {
+        diffBuilder.put(fullKey, -removedCount, addedCount);
+      }
+    } else if (afterElement.isJsonObject()) {
+      // Update objects, preferring the update value
+      diff(
+          diffBuilder,
+          beforeElement.getAsJsonObject(),
+          afterElement.getAsJsonObject(),
+          fullKey + ".");
+    } else {
+      createPrimitiveDiffItem(diffBuilder, fullKey, beforeElement, afterElement);
+    }
+  }
+
+  /**
+   * Recursively diff one object with another, replacing every subtree of {@code after} that equals
+   * the corresponding subtree of {@code before} with the latter.
+   *
+   * @param diffBuilder a {@link GsonDiffResult.Builder}
+   * @param before the original object
+   * @param after the modified object, which will share unchanged subtrees with {@code before}
+   * @param prefix the key prefix
+   * @return {@code true} if the two objects are equal, {@code false} otherwise
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
+   */
+  private boolean diffAndShare(
+      @NotNull GsonDiffResult.Builder diffBuilder,
+      @NotNull JsonObject before,
+      @NotNull JsonObject after,
+      @NotNull String prefix) {
+    boolean equal = before.size() == after.size();
     for (Map.Entry<String, JsonElement> entry : after.entrySet()) {
       String afterKey = entry.getKey();
       JsonElement afterElement = entry.getValue();
-      seenKeys.add(afterKey);
-      String fullKey = prefix + afterKey;
-      if (before.has(afterKey)) {
-        // Handle conflicts with different logic for arrays, objects and primitives
-        JsonElement beforeElement = before.get(afterKey);
-        if (typesConflict(beforeElement, afterElement)) {
-          String message = String.format("Type of %s and %s conflict", beforeElement, afterElement);
-          throw new IllegalStateException(message);
-        } else if (beforeElement.isJsonNull()) {
-          createAddedDiffItems(diffBuilder, fullKey, afterElement);
-        } else if (afterElement.isJsonNull()) {
-          createRemovedDiffItems(diffBuilder, fullKey, beforeElement);
-        } else if (afterElement.isJsonArray()) {
-          // Extend arrays
-          JsonArray beforeArray = beforeElement.getAsJsonArray();
-          JsonArray afterArray = afterElement.getAsJsonArray();
-          Set<JsonElement> beforeArraySet = new HashSet<>();
-          Set<JsonElement> afterArraySet = new HashSet<>();
-          beforeArray.forEach(beforeArraySet::add);
-          afterArray.forEach(afterArraySet::add);
-          int addedCount = 0;
-          for (JsonElement element : afterArray) {
-            if (!beforeArraySet.contains(element)) {
-              addedCount++;
-            }
-          }
-          int removedCount = 0;
-          for (JsonElement element : beforeArray) {
-            if (!afterArraySet.contains(element)) {
-              removedCount++;
-            }
-          }
-          if (addedCount != 0 || removedCount != 0) {
-            diffBuilder.put(fullKey, -removedCount, addedCount);
-          }
-        } else if (afterElement.isJsonObject()) {
-          // Update objects, preferring the update value
-          diff(
-              diffBuilder,
-              beforeElement.getAsJsonObject(),
-              afterElement.getAsJsonObject(),
-              fullKey + ".");
-        } else {
-          createPrimitiveDiffItem(diffBuilder, fullKey, beforeElement, afterElement);
-        }
+      JsonElement beforeElement = before.get(afterKey);
+      boolean elementsEqual;
+      if (beforeElement == afterElement) {
+        elementsEqual = true;
+      } else if (beforeElement != null
+          && beforeElement.isJsonObject()
+          && afterElement.isJsonObject()) {
+        elementsEqual =
+            diffAndShare(
+                diffBuilder,
+                beforeElement.getAsJsonObject(),
+                afterElement.getAsJsonObject(),
+                prefix + afterKey + ".");
+      } else if (beforeElement != null
+          && !beforeElement.isJsonObject()
+          && beforeElement.equals(afterElement)) {
+        elementsEqual = true;
       } else {
-        createAddedDiffItems(diffBuilder, fullKey, afterElement);
+        diff(diffBuilder, prefix + afterKey, beforeElement, afterElement);
+        elementsEqual = false;
+      }
+      if (elementsEqual) {
+        entry.setValue(beforeElement);
+      } else {
+        equal = false;
       }
     }
     for (Map.Entry<String, JsonElement> entry : before.entrySet()) {
       String beforeKey = entry.getKey();
-      JsonElement beforeValue = entry.getValue();
-      String fullKey = prefix + beforeKey;
-      if (!seenKeys.contains(beforeKey)) {
-        createRemovedDiffItems(diffBuilder, fullKey, beforeValue);
+      if (!after.has(beforeKey)) {
+        createRemovedDiffItems(diffBuilder, prefix + beforeKey, entry.getValue());
+        equal = false;
       }
     }
-    return diffBuilder.build();
+    return equal;
+  }
+
+  /**
+   * Recursively diff two modified objects against their common base, walking all three at once.
+   *
+   * @param state the builders used throughout the traversal
+   * @param base the original object
+   * @param left one modified version of the object
+   * @param right another modified version of the object
+   * @param prefix the key prefix
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
+   */
+  private void threeWayDiff(
+      @NotNull ThreeWayState state,
+      @NotNull JsonObject base,
+      @NotNull JsonObject left,
+      @NotNull JsonObject right,
+      @NotNull String prefix) {
+    for (Map.Entry<String, JsonElement> entry : base.entrySet()) {
+      String key = entry.getKey();
+      threeWayDiff(state, prefix + key, entry.getValue(), left.get(key), right.get(key));
+    }
+    for (Map.Entry<String, JsonElement> entry : left.entrySet()) {
+      String key = entry.getKey();
+      if (!base.has(key)) {
+        threeWayDiff(state, prefix + key, null, entry.getValue(), right.get(key));
+      }
+    }
+    for (Map.Entry<String, JsonElement> entry : right.entrySet()) {
+      String key = entry.getKey();
+      if (!base.has(key) && !left.has(key)) {
+        threeWayDiff(state, prefix + key, null, null, entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Diff a single property of two modified objects against their common base.
+   *
+   * @param state the builders used throughout the traversal
+   * @param fullKey the property's full name
+   * @param baseElement the original value, or {@code null} if it was missing
+   * @param leftElement one modified value, or {@code null} if it is missing
+   * @param rightElement another modified value, or {@code null} if it is missing
+   * @throws IllegalStateException when there is a type conflict under {@link
+   *     GsonConflictPolicy#FAIL}
+   */
+  private void threeWayDiff(
+      @NotNull ThreeWayState state,
+      @NotNull String fullKey,
+      @Nullable JsonElement baseElement,
+      @Nullable JsonElement leftElement,
+      @Nullable JsonElement rightElement) {
+    if (leftElement != null
+        && rightElement != null
+        && typesConflict(leftElement, rightElement)
+        && !equivalent(baseElement, leftElement)
+        && !equivalent(baseElement, rightElement)) {
+      // Otherwise only one side changed, so its diff against the base records any conflict below
+      switch (conflictPolicy) {
+        case RECORD:
+          // The two sides can't be compared property by property, so report the types instead
+          state.diffBuilder.put(
+              fullKey,
+              GsonValueType.of(baseElement),
+              GsonValueType.of(leftElement),
+              GsonValueType.of(rightElement));
+          return;
+        case REPLACE:
+          // Each side replaces the base independently, so diff them against it as usual below
+          break;
+        default:
+          throw typeConflict(fullKey, leftElement, rightElement);
+      }
+    }
+    boolean baseIsEmpty = (baseElement == null || baseElement.isJsonNull());
+    boolean leftIsEmpty = (leftElement == null || leftElement.isJsonNull());
+    boolean rightIsEmpty = (rightElement == null || rightElement.isJsonNull());
+    if ((baseIsEmpty || baseElement.isJsonObject())
+        && (leftIsEmpty || leftElement.isJsonObject())
+        && (rightIsEmpty || rightElement.isJsonObject())
+        && !(leftIsEmpty && rightIsEmpty)) {
+      // Every value is an object or missing, so compare their properties individually, treating
+      // missing values as empty objects so that each property is classified on its own
+      threeWayDiff(
+          state,
+          baseIsEmpty ? new JsonObject() : baseElement.getAsJsonObject(),
+          leftIsEmpty ? new JsonObject() : leftElement.getAsJsonObject(),
+          rightIsEmpty ? new JsonObject() : rightElement.getAsJsonObject(),
+          fullKey + ".");
+      return;
+    }
+    diff(state.leftBuilder, fullKey, baseElement, leftElement);
+    diff(state.rightBuilder, fullKey, baseElement, rightElement);
+    if (!state.leftBuilder.isEmpty() || !state.rightBuilder.isEmpty()) {
+      boolean sameValues = equivalent(leftElement, rightElement);
+      state.diffBuilder.put(state.leftBuilder, state.rightBuilder, sameValues);
+      state.leftBuilder.clear();
+      state.rightBuilder.clear();
+    }
+  }
+
+  /**
+   * Check whether two values would produce no diffs when compared with each other, i.e. treating
+   * nulls as missing, ignoring the order of properties and comparing lists as sets
+   *
+   * @param element1 a value, or {@code null} if it is missing
+   * @param element2 another value, or {@code null} if it is missing
+   * @return {@code true} if the values are equivalent, {@code false} otherwise
+   */
+  private static boolean equivalent(
+      @Nullable JsonElement element1, @Nullable JsonElement element2) {
+    boolean isEmpty1 = (element1 == null || element1.isJsonNull());
+    boolean isEmpty2 = (element2 == null || element2.isJsonNull());
+    if (isEmpty1 || isEmpty2) {
+      return isEmpty1 && isEmpty2;
+    } else if (element1.isJsonArray() && element2.isJsonArray()) {
+      Set<JsonElement> items1 = new HashSet<>();
+      element1.getAsJsonArray().forEach(items1::add);
+      Set<JsonElement> items2 = new HashSet<>();
+      element2.getAsJsonArray().forEach(items2::add);
+      return items1.equals(items2);
+    } else if (element1.isJsonObject() && element2.isJsonObject()) {
+      JsonObject object1 = element1.getAsJsonObject();
+      JsonObject object2 = element2.getAsJsonObject();
+      for (Map.Entry<String, JsonElement> entry : object1.entrySet()) {
+        if (!equivalent(entry.getValue(), object2.get(entry.getKey()))) {
+          return false;
+        }
+      }
+      for (Map.Entry<String, JsonElement> entry : object2.entrySet()) {
+        if (!object1.has(entry.getKey()) && !entry.getValue().isJsonNull()) {
+          return false;
+        }
+      }
+      return true;
+    } else if (element1.isJsonPrimitive() && element2.isJsonPrimitive()) {
+      JsonPrimitive primitive1 = element1.getAsJsonPrimitive();
+      JsonPrimitive primitive2 = element2.getAsJsonPrimitive();
+      if (primitive1.isNumber() && primitive2.isNumber()) {
+        // Numbers are compared as doubles, just as their diffs are
+        return Double.valueOf(primitive1.getAsDouble()).equals(primitive2.getAsDouble());
+      }
+      return primitive1.equals(primitive2);
+    }
+    return false;
+  }
+
+  /**
+   * This class holds the added and changed entries found by one thread while diffing maps
+   *
+   * @param <K> the class of the maps' keys
+   * @param <T> the class of the maps' values
+   */
+  private static class MapDiffState<K, T> {
+    private final Map<K, T> added = new HashMap<>();
+    private final Map<K, GsonDiffResult> changed = new HashMap<>();
+
+    private void addAll(@NotNull MapDiffState<K, T> other) {
+      added.putAll(other.added);
+      changed.putAll(other.changed);
+    }
+  }
+
+  /** This class holds the builders reused throughout a three-way diff */
+  private static class ThreeWayState {
+    final GsonThreeWayDiffResult.Builder diffBuilder = new GsonThreeWayDiffResult.Builder();
+    final GsonDiffResult.Builder leftBuilder = new GsonDiffResult.Builder();
+    final GsonDiffResult.Builder rightBuilder = new GsonDiffResult.Builder();
+  }
+
+  /**
+   * Handle a type conflict according to the {@link GsonConflictPolicy}
+   *
+   * @param diffBuilder a {@link GsonDiffResult.Builder}
+   * @param key the property's full name
+   * @param beforeElement the original value
+   * @param afterElement the modified value, whose type conflicts with the original
+   * @throws IllegalStateException when the policy is {@link GsonConflictPolicy#FAIL}
+   */
+  private void createTypeConflictDiffItems(
+      @NotNull GsonDiffResult.Builder diffBuilder,
+      @NotNull String key,
+      @NotNull JsonElement beforeElement,
+      @NotNull JsonElement afterElement) {
+    switch (conflictPolicy) {
+      case RECORD:
+        diffBuilder.put(key, GsonValueType.of(beforeElement), GsonValueType.of(afterElement));
+        break;
+      case REPLACE:
+        createRemovedDiffItems(diffBuilder, key, beforeElement);
+        createAddedDiffItems(diffBuilder, key, afterElement);
+        break;
+      default:
+        throw typeConflict(key, beforeElement, afterElement);
+    }
+  }
+
+  /**
+   * Create an exception describing a type conflict. Only the types are described rather than the
+   * values themselves, which may be arbitrarily large.
+   *
+   * @param key the property's full name
+   * @param element1 a {@link JsonElement}
+   * @param element2 a {@link JsonElement} whose type conflicts with the first
+   * @return an {@link IllegalStateException}
+   */
+  @NotNull
+  IllegalStateException typeConflict(
+      @NotNull String key, @NotNull JsonElement element1, @NotNull JsonElement element2) {
+    String message =
+        String.format(
+            "Type of %s conflicts: %s and %s",
+            key, GsonValueType.of(element1), GsonValueType.of(element2));
+    return new IllegalStateException(message);
+  }
+
+  /**
+   * Retrieve how type conflicts are handled
+   *
+   * @return a {@link GsonConflictPolicy}
+   */
+  @NotNull
+  GsonConflictPolicy conflictPolicy() {
+    return conflictPolicy;
   }
 
   /**
@@ -134,7 +728,7 @@ public class GsonDiffer {
    * @param element2 a {@link JsonElement}
    * @return {@code true} if the types conflict, {@code false otherwise}
    */
-  private boolean typesConflict(@NotNull JsonElement element1, @NotNull JsonElement element2) {
+  boolean typesConflict(@NotNull JsonElement element1, @NotNull JsonElement element2) {
     if (element1.isJsonNull()) {
       return false;
     } else if (element2.isJsonNull()) {
@@ -197,7 +791,13 @@ public class GsonDiffer {
       String beforeValue = (beforePrimitive == null) ? null : beforePrimitive.getAsString();
       String afterValue = (afterPrimitive == null) ? null : afterPrimitive.getAsString();
       if (beforeValue == null || !beforeValue.equals(afterValue)) {
-        diffBuilder.put(key, beforeValue, afterValue);
+        if (beforeValue != null
+            && afterValue != null
+            && Math.max(beforeValue.length(), afterValue.length()) >= compactStringThreshold) {
+          diffBuilder.put(new GsonStringDiff(key, beforeValue, afterValue));
+        } else {
+          diffBuilder.put(key, beforeValue, afterValue);
+        }
       }
     }
   }
@@ -237,4 +837,43 @@ public class GsonDiffer {
       createPrimitiveDiffItem(diffBuilder, key, element, null);
     }
   }
+
+  /** This class allows you to configure a {@link GsonDiffer} */
+  public static class Builder {
+    int compactStringThreshold = Integer.MAX_VALUE;
+    GsonConflictPolicy conflictPolicy = GsonConflictPolicy.FAIL;
+
+    /**
+     * Store changes to long strings as {@link GsonStringDiff}s, which keep the text both sides have
+     * in common only once and rebuild each side when requested.
+     *
+     * @param minimumLength the length at which either side of a change is considered long
+     * @return the updated {@code Builder}
+     */
+    public Builder compactStrings(int minimumLength) {
+      this.compactStringThreshold = minimumLength;
+      return this;
+    }
+
+    /**
+     * Choose how to handle values whose types conflict, e.g. a string that becomes a number. By
+     * default an {@link IllegalStateException} is thrown.
+     *
+     * @param conflictPolicy a {@link GsonConflictPolicy}
+     * @return the updated {@code Builder}
+     */
+    public Builder conflictPolicy(@NotNull GsonConflictPolicy conflictPolicy) {
+      this.conflictPolicy = conflictPolicy;
+      return this;
+    }
+
+    /**
+     * Build a {@link GsonDiffer}
+     *
+     * @return a {@link GsonDiffer}
+     */
+    public @NotNull GsonDiffer build() {
+      return new GsonDiffer(this);
+    }
+  }
 }
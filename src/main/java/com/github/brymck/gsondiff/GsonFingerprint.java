@@ -0,0 +1,340 @@
+package com.github.brymck.gsondiff;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents a Merkle tree of 64-bit hashes summarizing an object, which can later be
+ * compared with a modified version of the object without retaining the original.
+ *
+ * <p>Each property that {@link GsonDiffer} would report on, i.e. each primitive and each list, is a
+ * leaf whose hash covers its value, and each nested object's hash covers all of its properties.
+ * Like {@link GsonDiffer}, fingerprints treat nulls as missing, ignore the order of properties and
+ * compare lists as sets. Comparisons only descend into objects whose hashes differ.
+ *
+ * <p>For example, to find which properties of an object changed since it was stored:
+ *
+ * <pre>{@code
+ * byte[] stored = GsonFingerprint.of(gson, before).toByteArray();
+ * // ...later...
+ * SortedSet<String> changedPaths = GsonFingerprint.fromByteArray(stored).changedPaths(gson, after);
+ * }</pre>
+ */
+public class GsonFingerprint {
+  private static final int FORMAT_VERSION = 1;
+  private static final byte OBJECT = 0;
+  private static final byte LEAF = 1;
+  private static final long NULL_TAG = 0x1;
+  private static final long BOOLEAN_TAG = 0x2;
+  private static final long NUMBER_TAG = 0x3;
+  private static final long STRING_TAG = 0x4;
+  private static final long ARRAY_TAG = 0x5;
+  private static final long OBJECT_TAG = 0x6;
+
+  private final Node root;
+
+  private GsonFingerprint(@NotNull Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Create a fingerprint of an object
+   *
+   * @param object the object
+   * @return a {@link GsonFingerprint}
+   */
+  public static @NotNull GsonFingerprint of(@NotNull JsonObject object) {
+    return new GsonFingerprint(nodeOf(object));
+  }
+
+  /**
+   * Create a fingerprint of an object
+   *
+   * @param gson a {@link Gson} instance
+   * @param object the object
+   * @param <T> the class of the object
+   * @return a {@link GsonFingerprint}
+   */
+  public static <T> @NotNull GsonFingerprint of(@NotNull Gson gson, @NotNull T object) {
+    return of(gson.toJsonTree(object).getAsJsonObject());
+  }
+
+  /**
+   * Restore a fingerprint from the form produced by {@link #toByteArray()}
+   *
+   * @param bytes a serialized fingerprint
+   * @return a {@link GsonFingerprint}
+   * @throws IllegalArgumentException when the bytes are not a valid fingerprint
+   */
+  public static @NotNull GsonFingerprint fromByteArray(@NotNull byte[] bytes) {
+    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      int version = readVarInt(input);
+      if (version != FORMAT_VERSION) {
+        throw new IllegalArgumentException("Unsupported fingerprint version " + version);
+      }
+      Node root = readNode(input);
+      if (root.children == null || input.read() != -1) {
+        throw new IllegalArgumentException("Malformed fingerprint");
+      }
+      return new GsonFingerprint(root);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Malformed fingerprint", e);
+    }
+  }
+
+  /**
+   * Serialize this fingerprint compactly, storing only property names and hashes
+   *
+   * @return a serialized fingerprint
+   */
+  public @NotNull byte[] toByteArray() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(bytes)) {
+      writeVarInt(output, FORMAT_VERSION);
+      writeNode(output, root);
+    } catch (IOException e) {
+      // Writing to memory can't fail
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Retrieve the hash of the whole object
+   *
+   * @return a 64-bit hash
+   */
+  public long getHash() {
+    return root.hash;
+  }
+
+  /**
+   * Find the properties that differ between this fingerprint's object and another object, using the
+   * same keys as {@link GsonDiffer}
+   *
+   * @param object the modified object
+   * @return the names of changed properties in sorted order
+   */
+  public @NotNull SortedSet<String> changedPaths(@NotNull JsonObject object) {
+    return changedPaths(of(object));
+  }
+
+  /**
+   * Find the properties that differ between this fingerprint's object and another object, using the
+   * same keys as {@link GsonDiffer}
+   *
+   * @param gson a {@link Gson} instance
+   * @param object the modified object
+   * @param <T> the class of the object
+   * @return the names of changed properties in sorted order
+   */
+  public <T> @NotNull SortedSet<String> changedPaths(@NotNull Gson gson, @NotNull T object) {
+    return changedPaths(of(gson, object));
+  }
+
+  /**
+   * Find the properties that differ between this fingerprint's object and another's
+   *
+   * @param other a fingerprint of the modified object
+   * @return the names of changed properties in sorted order
+   */
+  public @NotNull SortedSet<String> changedPaths(@NotNull GsonFingerprint other) {
+    SortedSet<String> paths = new TreeSet<>();
+    compareChildren(root, other.root, "", paths);
+    return paths;
+  }
+
+  private static void compare(
+      @Nullable Node before,
+      @Nullable Node after,
+      @NotNull String path,
+      @NotNull SortedSet<String> paths) {
+    if (before != null && after != null && before.hash == after.hash) {
+      return;
+    }
+    if (before != null && after != null && before.children != null && after.children != null) {
+      compareChildren(before, after, path + ".", paths);
+      return;
+    }
+    addLeaves(before, path, paths);
+    addLeaves(after, path, paths);
+  }
+
+  private static void compareChildren(
+      @NotNull Node before,
+      @NotNull Node after,
+      @NotNull String prefix,
+      @NotNull SortedSet<String> paths) {
+    for (Map.Entry<String, Node> entry : after.children.entrySet()) {
+      String key = entry.getKey();
+      compare(before.children.get(key), entry.getValue(), prefix + key, paths);
+    }
+    for (Map.Entry<String, Node> entry : before.children.entrySet()) {
+      String key = entry.getKey();
+      if (!after.children.containsKey(key)) {
+        addLeaves(entry.getValue(), prefix + key, paths);
+      }
+    }
+  }
+
+  private static void addLeaves(
+      @Nullable Node node, @NotNull String path, @NotNull SortedSet<String> paths) {
+    if (node == null) {
+      return;
+    }
+    if (node.children == null) {
+      paths.add(path);
+      return;
+    }
+    for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+      addLeaves(entry.getValue(), path + "." + entry.getKey(), paths);
+    }
+  }
+
+  private static @NotNull Node nodeOf(@NotNull JsonObject object) {
+    Map<String, Node> children = new LinkedHashMap<>();
+    long sum = 0;
+    for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+      JsonElement element = entry.getValue();
+      if (element.isJsonNull()) {
+        // Nulls are treated the same as missing properties
+        continue;
+      }
+      Node child = element.isJsonObject() ? nodeOf(element.getAsJsonObject()) : leafOf(element);
+      children.put(entry.getKey(), child);
+      sum += memberHash(entry.getKey(), child.hash);
+    }
+    return new Node(Hashing.mix(OBJECT_TAG + sum), children);
+  }
+
+  private static @NotNull Node leafOf(@NotNull JsonElement element) {
+    return new Node(hashOf(element), null);
+  }
+
+  /**
+   * Hash a value so that values {@link GsonDiffer} considers equal have equal hashes
+   *
+   * @param element a {@link JsonElement}
+   * @return a 64-bit hash
+   */
+  private static long hashOf(@NotNull JsonElement element) {
+    if (element.isJsonNull()) {
+      return Hashing.mix(NULL_TAG);
+    } else if (element.isJsonObject()) {
+      long sum = 0;
+      for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+        if (!entry.getValue().isJsonNull()) {
+          sum += memberHash(entry.getKey(), hashOf(entry.getValue()));
+        }
+      }
+      return Hashing.mix(OBJECT_TAG + sum);
+    } else if (element.isJsonArray()) {
+      // Lists are compared as sets, so sort and remove duplicates before combining
+      JsonArray array = element.getAsJsonArray();
+      long[] hashes = new long[array.size()];
+      for (int i = 0; i < hashes.length; i++) {
+        hashes[i] = hashOf(array.get(i));
+      }
+      Arrays.sort(hashes);
+      long hash = ARRAY_TAG;
+      for (int i = 0; i < hashes.length; i++) {
+        if (i == 0 || hashes[i] != hashes[i - 1]) {
+          hash = Hashing.mix(hash * 31 + hashes[i]);
+        }
+      }
+      return Hashing.mix(hash);
+    } else {
+      JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if (primitive.isBoolean()) {
+        return Hashing.mix(BOOLEAN_TAG * 31 + (primitive.getAsBoolean() ? 1 : 0));
+      } else if (primitive.isNumber()) {
+        long bits = Double.doubleToLongBits(primitive.getAsDouble());
+        return Hashing.mix(NUMBER_TAG * 31 + bits);
+      } else {
+        return Hashing.mix(STRING_TAG * 31 + Hashing.hash(primitive.getAsString()));
+      }
+    }
+  }
+
+  private static long memberHash(@NotNull String key, long valueHash) {
+    // Combine members commutatively so that their order doesn't matter
+    return Hashing.mix(Hashing.hash(key) * 0x9e3779b97f4a7c15L + valueHash);
+  }
+
+  private static void writeNode(@NotNull DataOutputStream output, @NotNull Node node)
+      throws IOException {
+    output.writeByte(node.children == null ? LEAF : OBJECT);
+    output.writeLong(node.hash);
+    if (node.children != null) {
+      writeVarInt(output, node.children.size());
+      for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+        output.writeUTF(entry.getKey());
+        writeNode(output, entry.getValue());
+      }
+    }
+  }
+
+  private static @NotNull Node readNode(@NotNull DataInputStream input) throws IOException {
+    byte kind = input.readByte();
+    long hash = input.readLong();
+    if (kind == LEAF) {
+      return new Node(hash, null);
+    } else if (kind != OBJECT) {
+      throw new IllegalArgumentException("Malformed fingerprint");
+    }
+    int size = readVarInt(input);
+    Map<String, Node> children = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      String key = input.readUTF();
+      children.put(key, readNode(input));
+    }
+    return new Node(hash, children);
+  }
+
+  private static void writeVarInt(@NotNull DataOutputStream output, int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      output.writeByte((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  private static int readVarInt(@NotNull DataInputStream input) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = input.readByte();
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed fingerprint");
+  }
+
+  /** This class represents a hash and, for objects, the hashes of each property */
+  private static class Node {
+    final long hash;
+    final @Nullable Map<String, Node> children;
+
+    Node(long hash, @Nullable Map<String, Node> children) {
+      this.hash = hash;
+      this.children = children;
+    }
+  }
+}
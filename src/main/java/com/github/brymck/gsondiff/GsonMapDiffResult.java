@@ -0,0 +1,82 @@
+package com.github.brymck.gsondiff;
+
+import java.util.Collections;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents the differences between two maps of objects: the entries only in the
+ * modified map, the entries only in the original map, and a {@link GsonDiffResult} for each entry
+ * whose object changed. Entries whose objects are unchanged are not stored at all.
+ *
+ * @param <K> the class of the maps' keys
+ * @param <T> the class of the maps' values
+ */
+public class GsonMapDiffResult<K, T> {
+  private Map<K, T> added;
+  private Map<K, T> removed;
+  private Map<K, GsonDiffResult> changed;
+
+  /**
+   * Create an instance of {@link GsonMapDiffResult}
+   *
+   * @param added the entries that are not in the original map
+   * @param removed the entries that are not in the modified map
+   * @param changed the diffs of entries whose objects changed
+   */
+  public GsonMapDiffResult(
+      @NotNull Map<K, T> added,
+      @NotNull Map<K, T> removed,
+      @NotNull Map<K, GsonDiffResult> changed) {
+    this.added = Collections.unmodifiableMap(added);
+    this.removed = Collections.unmodifiableMap(removed);
+    this.changed = Collections.unmodifiableMap(changed);
+  }
+
+  /**
+   * Retrieve the entries that are in the modified map but not the original map
+   *
+   * @return the added entries
+   */
+  public @NotNull Map<K, T> getAdded() {
+    return added;
+  }
+
+  /**
+   * Retrieve the entries that are in the original map but not the modified map
+   *
+   * @return the removed entries
+   */
+  public @NotNull Map<K, T> getRemoved() {
+    return removed;
+  }
+
+  /**
+   * Retrieve the diffs of entries that are in both maps but whose objects changed
+   *
+   * @return the diffs, keyed on the maps' keys
+   */
+  public @NotNull Map<K, GsonDiffResult> getChanged() {
+    return changed;
+  }
+
+  /**
+   * Retrieve the diff of a single entry whose object changed
+   *
+   * @param key the entry's key
+   * @return the diff, or {@code null} if the entry didn't change or isn't in both maps
+   */
+  public @Nullable GsonDiffResult getChanged(@NotNull K key) {
+    return changed.get(key);
+  }
+
+  /**
+   * Retrieve the number of entries that were added, removed or changed
+   *
+   * @return the number of differing entries
+   */
+  public int size() {
+    return added.size() + removed.size() + changed.size();
+  }
+}
@@ -0,0 +1,153 @@
+package com.github.brymck.gsondiff;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class represents a diff between two strings that stores the text they have in common only
+ * once, alongside the differing middle section of each side. The full left- and right-hand side
+ * values are rebuilt whenever they are requested.
+ *
+ * <p>For example, {@code "The quick brown fox"} and {@code "The quick red fox"} share the prefix
+ * {@code "The quick "} and the suffix {@code " fox"}, leaving {@code "brown"} and {@code "red"} as
+ * their middle sections.
+ */
+public class GsonStringDiff extends GsonDiff<String> {
+  private String common;
+  private int prefixLength;
+  private String leftMiddle;
+  private String rightMiddle;
+
+  /**
+   * Create an instance of {@link GsonStringDiff}
+   *
+   * @param key the property's name
+   * @param left the left-hand side (before) value
+   * @param right the right-hand side (after) value
+   */
+  public GsonStringDiff(@NotNull String key, @NotNull String left, @NotNull String right) {
+    super(key, null, null);
+    int maxLength = Math.min(left.length(), right.length());
+    int prefixLength = 0;
+    while (prefixLength < maxLength && left.charAt(prefixLength) == right.charAt(prefixLength)) {
+      prefixLength++;
+    }
+    if (prefixLength > 0 && Character.isHighSurrogate(left.charAt(prefixLength - 1))) {
+      // Don't split surrogate pairs between the common and differing sections
+      prefixLength--;
+    }
+    int suffixLength = 0;
+    while (suffixLength < maxLength - prefixLength
+        && left.charAt(left.length() - 1 - suffixLength)
+            == right.charAt(right.length() - 1 - suffixLength)) {
+      suffixLength++;
+    }
+    if (suffixLength > 0 && Character.isLowSurrogate(left.charAt(left.length() - suffixLength))) {
+      suffixLength--;
+    }
+    this.common = left.substring(0, prefixLength) + left.substring(left.length() - suffixLength);
+    this.prefixLength = prefixLength;
+    this.leftMiddle = left.substring(prefixLength, left.length() - suffixLength);
+    this.rightMiddle = right.substring(prefixLength, right.length() - suffixLength);
+  }
+
+  /**
+   * Create an instance of {@link GsonStringDiff} from its compact form
+   *
+   * @param key the property's name
+   * @param common the common prefix followed by the common suffix
+   * @param prefixLength the length of the common prefix
+   * @param leftMiddle the left-hand side's middle section
+   * @param rightMiddle the right-hand side's middle section
+   */
+  GsonStringDiff(
+      @NotNull String key,
+      @NotNull String common,
+      int prefixLength,
+      @NotNull String leftMiddle,
+      @NotNull String rightMiddle) {
+    super(key, null, null);
+    if (prefixLength < 0 || prefixLength > common.length()) {
+      String message =
+          String.format("Prefix length %d is outside of 0 and %d", prefixLength, common.length());
+      throw new IllegalArgumentException(message);
+    }
+    this.common = common;
+    this.prefixLength = prefixLength;
+    this.leftMiddle = leftMiddle;
+    this.rightMiddle = rightMiddle;
+  }
+
+  /**
+   * Rebuild the left-hand side (before) value
+   *
+   * @return the left-hand side (before) value
+   */
+  @Override
+  public @NotNull String getLeft() {
+    return rebuild(leftMiddle);
+  }
+
+  /**
+   * Rebuild the right-hand side (after) value
+   *
+   * @return the right-hand side (after) value
+   */
+  @Override
+  public @NotNull String getRight() {
+    return rebuild(rightMiddle);
+  }
+
+  /**
+   * Retrieve the number of characters at the start of both values that are the same
+   *
+   * @return the length of the common prefix
+   */
+  public int getPrefixLength() {
+    return prefixLength;
+  }
+
+  /**
+   * Retrieve the number of characters at the end of both values that are the same
+   *
+   * @return the length of the common suffix
+   */
+  public int getSuffixLength() {
+    return common.length() - prefixLength;
+  }
+
+  /**
+   * Retrieve the common prefix followed by the common suffix
+   *
+   * @return the text both values have in common
+   */
+  @NotNull
+  String getCommon() {
+    return common;
+  }
+
+  /**
+   * Retrieve the part of the left-hand side (before) value between the common prefix and suffix
+   *
+   * @return the left-hand side's middle section
+   */
+  public @NotNull String getLeftMiddle() {
+    return leftMiddle;
+  }
+
+  /**
+   * Retrieve the part of the right-hand side (after) value between the common prefix and suffix
+   *
+   * @return the right-hand side's middle section
+   */
+  public @NotNull String getRightMiddle() {
+    return rightMiddle;
+  }
+
+  private @NotNull String rebuild(@NotNull String middle) {
+    return new StringBuilder(common.length() + middle.length())
+        .append(common, 0, prefixLength)
+        .append(middle)
+        .append(common, prefixLength, common.length())
+        .toString();
+  }
+}
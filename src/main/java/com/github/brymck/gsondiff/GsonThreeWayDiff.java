@@ -0,0 +1,84 @@
+package com.github.brymck.gsondiff;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents how a property of the provided {@code key} changed on the {@code left} and
+ * {@code right} side relative to a common base.
+ *
+ * @param <T> the type of the diff to be stored
+ */
+public class GsonThreeWayDiff<@NotNull T> {
+  /** This enum represents how the changes on each side relate to each other */
+  public enum Status {
+    /** Only the left-hand side changed the property */
+    LEFT_ONLY,
+    /** Only the right-hand side changed the property */
+    RIGHT_ONLY,
+    /** Both sides changed the property in the same way */
+    BOTH_SAME,
+    /** Both sides changed the property in different ways */
+    CONFLICT
+  }
+
+  private String key;
+  private GsonDiff<T> leftDiff;
+  private GsonDiff<T> rightDiff;
+  private Status status;
+
+  /**
+   * Create an instance of {@link GsonThreeWayDiff}.
+   *
+   * @param key the property's name
+   * @param leftDiff the diff between the base and the left-hand side, if any
+   * @param rightDiff the diff between the base and the right-hand side, if any
+   * @param status how the two diffs relate to each other
+   */
+  public GsonThreeWayDiff(
+      @NotNull String key,
+      @Nullable GsonDiff<T> leftDiff,
+      @Nullable GsonDiff<T> rightDiff,
+      @NotNull Status status) {
+    this.key = key;
+    this.leftDiff = leftDiff;
+    this.rightDiff = rightDiff;
+    this.status = status;
+  }
+
+  /**
+   * Retrieve the property's name
+   *
+   * @return the property's name
+   */
+  public @NotNull String getKey() {
+    return key;
+  }
+
+  /**
+   * Retrieve the diff between the base and the left-hand side
+   *
+   * @return the diff, or {@code null} if the left-hand side did not change the property
+   */
+  public @Nullable GsonDiff<T> getLeftDiff() {
+    return leftDiff;
+  }
+
+  /**
+   * Retrieve the diff between the base and the right-hand side
+   *
+   * @return the diff, or {@code null} if the right-hand side did not change the property
+   */
+  public @Nullable GsonDiff<T> getRightDiff() {
+    return rightDiff;
+  }
+
+  /**
+   * Retrieve how the changes on each side relate to each other
+   *
+   * @return the {@link Status}
+   */
+  public @NotNull Status getStatus() {
+    return status;
+  }
+}
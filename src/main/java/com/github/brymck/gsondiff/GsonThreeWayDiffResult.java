@@ -0,0 +1,215 @@
+package com.github.brymck.gsondiff;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class represents a collection of three-way diffs of various types between a base object and
+ * two modified versions of it, keyed on property name
+ */
+public class GsonThreeWayDiffResult {
+  private Map<String, GsonThreeWayDiff<String>> strings;
+  private Map<String, GsonThreeWayDiff<Double>> doubles;
+  private Map<String, GsonThreeWayDiff<Integer>> integers;
+  private Map<String, GsonThreeWayDiff<Boolean>> booleans;
+  private Map<String, GsonThreeWayDiff<GsonValueType>> typeConflicts;
+
+  /**
+   * Create an instance of {@link GsonThreeWayDiffResult}
+   *
+   * @param strings a list of string diffs
+   * @param doubles a list of double diffs
+   * @param integers a list of integer diffs
+   * @param booleans a list of boolean diffs
+   * @param typeConflicts a list of type conflicts
+   */
+  public GsonThreeWayDiffResult(
+      Map<String, GsonThreeWayDiff<String>> strings,
+      Map<String, GsonThreeWayDiff<Double>> doubles,
+      Map<String, GsonThreeWayDiff<Integer>> integers,
+      Map<String, GsonThreeWayDiff<Boolean>> booleans,
+      Map<String, GsonThreeWayDiff<GsonValueType>> typeConflicts) {
+    this.strings = strings;
+    this.doubles = doubles;
+    this.integers = integers;
+    this.booleans = booleans;
+    this.typeConflicts = typeConflicts;
+  }
+
+  /**
+   * Retrieve a string-based three-way diff
+   *
+   * @param key the property's name
+   * @return a three-way diff for the property
+   */
+  public @NotNull GsonThreeWayDiff<@NotNull String> getStringDiff(@NotNull String key) {
+    return strings.get(key);
+  }
+
+  /**
+   * Retrieve a double-based three-way diff
+   *
+   * @param key the property's name
+   * @return a three-way diff for the property
+   */
+  public @NotNull GsonThreeWayDiff<@NotNull Double> getDoubleDiff(@NotNull String key) {
+    return doubles.get(key);
+  }
+
+  /**
+   * Retrieve an integer-based three-way diff
+   *
+   * @param key the property's name
+   * @return a three-way diff for the property
+   */
+  public @NotNull GsonThreeWayDiff<@NotNull Integer> getIntegerDiff(@NotNull String key) {
+    return integers.get(key);
+  }
+
+  /**
+   * Retrieve a boolean-based three-way diff
+   *
+   * @param key the property's name
+   * @return a three-way diff for the property
+   */
+  public @NotNull GsonThreeWayDiff<@NotNull Boolean> getBooleanDiff(@NotNull String key) {
+    return booleans.get(key);
+  }
+
+  /**
+   * Retrieve a three-way type conflict recorded under {@link GsonConflictPolicy#RECORD}
+   *
+   * @param key the property's name
+   * @return a three-way diff of the property's types
+   */
+  public @NotNull GsonThreeWayDiff<@NotNull GsonValueType> getTypeConflict(@NotNull String key) {
+    return typeConflicts.get(key);
+  }
+
+  /**
+   * Retrieve the number of diffs
+   *
+   * @return the number of diffs
+   */
+  public int size() {
+    return strings.size()
+        + doubles.size()
+        + integers.size()
+        + booleans.size()
+        + typeConflicts.size();
+  }
+
+  /**
+   * Retrieve the number of diffs with a given status
+   *
+   * @param status a {@link GsonThreeWayDiff.Status}
+   * @return the number of diffs with that status
+   */
+  public int size(@NotNull GsonThreeWayDiff.Status status) {
+    return count(strings, status)
+        + count(doubles, status)
+        + count(integers, status)
+        + count(booleans, status)
+        + count(typeConflicts, status);
+  }
+
+  private static int count(
+      @NotNull Map<String, ? extends GsonThreeWayDiff<?>> diffs,
+      @NotNull GsonThreeWayDiff.Status status) {
+    int count = 0;
+    for (GsonThreeWayDiff<?> diff : diffs.values()) {
+      if (diff.getStatus() == status) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /** This class allows you to incrementally create a {@link GsonThreeWayDiffResult} */
+  static class Builder {
+    Map<String, GsonThreeWayDiff<String>> strings = new HashMap<>();
+    Map<String, GsonThreeWayDiff<Double>> doubles = new HashMap<>();
+    Map<String, GsonThreeWayDiff<Integer>> integers = new HashMap<>();
+    Map<String, GsonThreeWayDiff<Boolean>> booleans = new HashMap<>();
+    Map<String, GsonThreeWayDiff<GsonValueType>> typeConflicts = new HashMap<>();
+
+    /**
+     * Combine the diffs of a single property from each side
+     *
+     * @param left diffs between the base and the left-hand side
+     * @param right diffs between the base and the right-hand side
+     * @param sameValues whether both sides ended up with the same value
+     * @return the updated {@code Builder}
+     */
+    Builder put(
+        @NotNull GsonDiffResult.Builder left,
+        @NotNull GsonDiffResult.Builder right,
+        boolean sameValues) {
+      put(strings, left.strings, right.strings, sameValues);
+      put(doubles, left.doubles, right.doubles, sameValues);
+      put(integers, left.integers, right.integers, sameValues);
+      put(booleans, left.booleans, right.booleans, sameValues);
+      put(typeConflicts, left.typeConflicts, right.typeConflicts, sameValues);
+      return this;
+    }
+
+    /**
+     * Add a conflict between the types on each side
+     *
+     * @param key the property's name
+     * @param base the base type
+     * @param left the left-hand side type
+     * @param right the right-hand side type
+     * @return the updated {@code Builder}
+     */
+    Builder put(
+        @NotNull String key,
+        @NotNull GsonValueType base,
+        @NotNull GsonValueType left,
+        @NotNull GsonValueType right) {
+      GsonDiff<GsonValueType> leftDiff = new GsonDiff<>(key, base, left);
+      GsonDiff<GsonValueType> rightDiff = new GsonDiff<>(key, base, right);
+      GsonThreeWayDiff.Status status = GsonThreeWayDiff.Status.CONFLICT;
+      typeConflicts.put(key, new GsonThreeWayDiff<>(key, leftDiff, rightDiff, status));
+      return this;
+    }
+
+    private static <T> void put(
+        @NotNull Map<String, GsonThreeWayDiff<T>> diffs,
+        @NotNull Map<String, GsonDiff<T>> leftDiffs,
+        @NotNull Map<String, GsonDiff<T>> rightDiffs,
+        boolean sameValues) {
+      for (GsonDiff<T> leftDiff : leftDiffs.values()) {
+        String key = leftDiff.getKey();
+        GsonDiff<T> rightDiff = rightDiffs.get(key);
+        GsonThreeWayDiff.Status status;
+        if (rightDiff == null) {
+          status = GsonThreeWayDiff.Status.LEFT_ONLY;
+        } else if (sameValues) {
+          status = GsonThreeWayDiff.Status.BOTH_SAME;
+        } else {
+          status = GsonThreeWayDiff.Status.CONFLICT;
+        }
+        diffs.put(key, new GsonThreeWayDiff<>(key, leftDiff, rightDiff, status));
+      }
+      for (GsonDiff<T> rightDiff : rightDiffs.values()) {
+        String key = rightDiff.getKey();
+        if (!leftDiffs.containsKey(key)) {
+          GsonThreeWayDiff.Status status = GsonThreeWayDiff.Status.RIGHT_ONLY;
+          diffs.put(key, new GsonThreeWayDiff<>(key, null, rightDiff, status));
+        }
+      }
+    }
+
+    /**
+     * Build a {@link GsonThreeWayDiffResult}
+     *
+     * @return a {@link GsonThreeWayDiffResult}
+     */
+    @NotNull
+    GsonThreeWayDiffResult build() {
+      return new GsonThreeWayDiffResult(strings, doubles, integers, booleans, typeConflicts);
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package com.github.brymck.gsondiff;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class wraps an object that is modified in place, recording which of its properties changed
+ * since it was last committed so that {@link GsonDiffer#diff(GsonTrackedObject)} only compares
+ * those properties rather than the whole object.
+ *
+ * <p>Properties are addressed by the same dot-separated names as {@link GsonDiffer} uses, so
+ * properties whose own names contain dots can't be addressed individually. Changes made through
+ * {@link #set(String, JsonElement)} and {@link #remove(String)} are recorded automatically, whereas
+ * changes made directly to {@link #getObject()} must be reported with {@link #markDirty(String)}.
+ *
+ * <p>For example:
+ *
+ * <pre>{@code
+ * GsonTrackedObject tracked = GsonTrackedObject.of(gson, order);
+ * tracked.set("customer.name", new JsonPrimitive("Bryan"));
+ * GsonDiffResult diffResult = gsonDiffer.diff(tracked);
+ * tracked.commit();
+ * }</pre>
+ */
+public class GsonTrackedObject {
+  private final JsonObject object;
+  private JsonObject baseline;
+  private final SortedSet<String> dirtyPaths = new TreeSet<>();
+
+  /**
+   * Create an instance of {@link GsonTrackedObject}, whose baseline is a copy of the object
+   *
+   * @param object the object to modify
+   */
+  public GsonTrackedObject(@NotNull JsonObject object) {
+    this.object = object;
+    this.baseline = object.deepCopy();
+  }
+
+  /**
+   * Create an instance of {@link GsonTrackedObject} from an object's serialized form
+   *
+   * @param gson a {@link Gson} instance
+   * @param object the object
+   * @param <T> the class of the object
+   * @return a {@link GsonTrackedObject}
+   */
+  public static <T> @NotNull GsonTrackedObject of(@NotNull Gson gson, @NotNull T object) {
+    return new GsonTrackedObject(gson.toJsonTree(object).getAsJsonObject());
+  }
+
+  /**
+   * Retrieve the modified object
+   *
+   * @return the modified object
+   */
+  public @NotNull JsonObject getObject() {
+    return object;
+  }
+
+  /**
+   * Retrieve the object as it was when last committed
+   *
+   * @return the original object
+   */
+  @NotNull
+  JsonObject getBaseline() {
+    return baseline;
+  }
+
+  /**
+   * Retrieve a property of the modified object
+   *
+   * @param path the property's name
+   * @return the property's value, or {@code null} if it is missing
+   */
+  public @Nullable JsonElement get(@NotNull String path) {
+    String[] segments = split(path);
+    JsonObject parent = object;
+    for (int i = 0; i < segments.length - 1; i++) {
+      JsonElement child = parent.get(segments[i]);
+      if (child == null || !child.isJsonObject()) {
+        return null;
+      }
+      parent = child.getAsJsonObject();
+    }
+    return parent.get(segments[segments.length - 1]);
+  }
+
+  /**
+   * Set a property of the modified object, creating any missing parent objects and replacing any
+   * parents that aren't objects
+   *
+   * @param path the property's name
+   * @param value the property's new value
+   * @return the updated {@code GsonTrackedObject}
+   */
+  public @NotNull GsonTrackedObject set(@NotNull String path, @Nullable JsonElement value) {
+    String[] segments = split(path);
+    JsonObject parent = object;
+    int dirtyLength = path.length();
+    int length = -1;
+    for (int i = 0; i < segments.length - 1; i++) {
+      length += segments[i].length() + 1;
+      JsonElement child = parent.get(segments[i]);
+      if (child == null || !child.isJsonObject()) {
+        // Everything below the first new parent is new, so it's enough to mark that parent
+        dirtyLength = Math.min(dirtyLength, length);
+        child = new JsonObject();
+        parent.add(segments[i], child);
+      }
+      parent = child.getAsJsonObject();
+    }
+    parent.add(segments[segments.length - 1], value);
+    return markDirty(path.substring(0, dirtyLength));
+  }
+
+  /**
+   * Remove a property of the modified object
+   *
+   * @param path the property's name
+   * @return the updated {@code GsonTrackedObject}
+   */
+  public @NotNull GsonTrackedObject remove(@NotNull String path) {
+    String[] segments = split(path);
+    JsonObject parent = object;
+    for (int i = 0; i < segments.length - 1; i++) {
+      JsonElement child = parent.get(segments[i]);
+      if (child == null || !child.isJsonObject()) {
+        return this;
+      }
+      parent = child.getAsJsonObject();
+    }
+    if (parent.remove(segments[segments.length - 1]) != null) {
+      markDirty(path);
+    }
+    return this;
+  }
+
+  /**
+   * Record that a property of the modified object, including anything nested within it, may have
+   * changed
+   *
+   * @param path the property's name
+   * @return the updated {@code GsonTrackedObject}
+   */
+  public @NotNull GsonTrackedObject markDirty(@NotNull String path) {
+    if (path.isEmpty()) {
+      throw new IllegalArgumentException("Path must not be empty");
+    } else if (dirtyPaths.contains("")) {
+      return this;
+    }
+    for (int end = path.lastIndexOf('.'); end >= 0; end = path.lastIndexOf('.', end - 1)) {
+      if (dirtyPaths.contains(path.substring(0, end))) {
+        // An enclosing object is already dirty
+        return this;
+      }
+    }
+    // Nested properties sort between "path." and "path/", since '/' follows '.'
+    dirtyPaths.subSet(path + ".", path + "/").clear();
+    dirtyPaths.add(path);
+    return this;
+  }
+
+  /**
+   * Record that any part of the modified object may have changed, so that it is compared in full
+   *
+   * @return the updated {@code GsonTrackedObject}
+   */
+  public @NotNull GsonTrackedObject markDirty() {
+    dirtyPaths.clear();
+    dirtyPaths.add("");
+    return this;
+  }
+
+  /**
+   * Retrieve the properties that may have changed since the last commit, excluding properties
+   * nested within other dirty properties. The empty string means the whole object is dirty.
+   *
+   * @return the dirty properties' names in sorted order
+   */
+  public @NotNull SortedSet<String> getDirtyPaths() {
+    return Collections.unmodifiableSortedSet(dirtyPaths);
+  }
+
+  /** Accept all changes so far, copying only the dirty properties into the baseline */
+  public void commit() {
+    for (String path : dirtyPaths) {
+      if (path.isEmpty()) {
+        baseline = object.deepCopy();
+        break;
+      }
+      commit(path);
+    }
+    dirtyPaths.clear();
+  }
+
+  private void commit(@NotNull String path) {
+    String[] segments = split(path);
+    JsonObject baselineParent = baseline;
+    JsonObject parent = object;
+    for (int i = 0; i < segments.length; i++) {
+      String segment = segments[i];
+      JsonElement baselineChild = baselineParent.get(segment);
+      JsonElement child = parent.get(segment);
+      // Copy the whole property once either side stops being an object
+      if (i == segments.length - 1
+          || baselineChild == null
+          || !baselineChild.isJsonObject()
+          || child == null
+          || !child.isJsonObject()) {
+        if (child == null) {
+          baselineParent.remove(segment);
+        } else {
+          baselineParent.add(segment, child.deepCopy());
+        }
+        return;
+      }
+      baselineParent = baselineChild.getAsJsonObject();
+      parent = child.getAsJsonObject();
+    }
+  }
+
+  private static @NotNull String[] split(@NotNull String path) {
+    if (path.isEmpty()) {
+      throw new IllegalArgumentException("Path must not be empty");
+    }
+    return path.split("\\.", -1);
+  }
+}
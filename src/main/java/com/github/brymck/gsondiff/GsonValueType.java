@@ -0,0 +1,46 @@
+package com.github.brymck.gsondiff;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/** This enum represents the kinds of JSON values that can be compared */
+public enum GsonValueType {
+  /** A null or missing value */
+  NULL,
+  /** An object */
+  OBJECT,
+  /** A list */
+  ARRAY,
+  /** A boolean */
+  BOOLEAN,
+  /** A number */
+  NUMBER,
+  /** A string */
+  STRING;
+
+  /**
+   * Determine the kind of a JSON value
+   *
+   * @param element a {@link JsonElement}, or {@code null} if it is missing
+   * @return the value's kind
+   */
+  static @NotNull GsonValueType of(@Nullable JsonElement element) {
+    if (element == null || element.isJsonNull()) {
+      return NULL;
+    } else if (element.isJsonObject()) {
+      return OBJECT;
+    } else if (element.isJsonArray()) {
+      return ARRAY;
+    }
+    JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if (primitive.isBoolean()) {
+      return BOOLEAN;
+    } else if (primitive.isNumber()) {
+      return NUMBER;
+    } else {
+      return STRING;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.github.brymck.gsondiff;
+
+import org.jetbrains.annotations.NotNull;
+
+/** This class provides the 64-bit hash functions shared by sketches and fingerprints */
+final class Hashing {
+  private Hashing() {}
+
+  /**
+   * Hash a string with 64-bit FNV-1a followed by a final mix
+   *
+   * @param value the string to hash
+   * @return a 64-bit hash
+   */
+  static long hash(@NotNull String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /**
+   * Scramble the bits of a hash so that similar inputs produce dissimilar outputs
+   *
+   * @param hash a 64-bit value
+   * @return a 64-bit hash
+   */
+  static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
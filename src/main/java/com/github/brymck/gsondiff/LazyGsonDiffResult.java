@@ -0,0 +1,194 @@
+package com.github.brymck.gsondiff;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import com.google.gson.annotations.JsonAdapter;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents a {@link GsonDiffResult} whose diffs are only computed along the paths that
+ * are requested, falling back to a full diff for operations that need every key.
+ *
+ * <p>Property names are split on {@code "."} to find their values, so properties whose own names
+ * contain dots can only be found once the full diff has been computed. Likewise, type conflicts are
+ * only reported for the paths that have been visited.
+ *
+ * <p>Serializing a lazy result computes the full diff first, so it is written exactly as the
+ * equivalent {@link GsonDiffResult} would be.
+ */
+@JsonAdapter(LazyGsonDiffResult.Serializer.class)
+class LazyGsonDiffResult extends GsonDiffResult {
+  private static final GsonDiffResult EMPTY = GsonDiffResult.builder().build();
+
+  private final transient GsonDiffer gsonDiffer;
+  private final transient JsonObject before;
+  private final transient JsonObject after;
+  private final transient Map<String, GsonDiffResult> pathResults = new ConcurrentHashMap<>();
+  private transient volatile GsonDiffResult fullResult;
+
+  /**
+   * Create an instance of {@link LazyGsonDiffResult}
+   *
+   * @param gsonDiffer the {@link GsonDiffer} used to compare values
+   * @param before the original object
+   * @param after the modified object
+   */
+  LazyGsonDiffResult(
+      @NotNull GsonDiffer gsonDiffer, @NotNull JsonObject before, @NotNull JsonObject after) {
+    super(
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        Collections.emptyMap());
+    this.gsonDiffer = gsonDiffer;
+    this.before = before;
+    this.after = after;
+  }
+
+  @Override
+  public @NotNull GsonDiff<@NotNull String> getStringDiff(@NotNull String key) {
+    return resultFor(key).getStringDiff(key);
+  }
+
+  @Override
+  public @NotNull GsonDiff<@NotNull Double> getDoubleDiff(@NotNull String key) {
+    return resultFor(key).getDoubleDiff(key);
+  }
+
+  @Override
+  public @NotNull GsonDiff<@NotNull Integer> getIntegerDiff(@NotNull String key) {
+    return resultFor(key).getIntegerDiff(key);
+  }
+
+  @Override
+  public @NotNull GsonDiff<@NotNull Boolean> getBooleanDiff(@NotNull String key) {
+    return resultFor(key).getBooleanDiff(key);
+  }
+
+  @Override
+  public @NotNull GsonDiff<@NotNull GsonValueType> getTypeConflict(@NotNull String key) {
+    return resultFor(key).getTypeConflict(key);
+  }
+
+  @Override
+  public int size() {
+    return fullResult().size();
+  }
+
+  @Override
+  public @NotNull GsonDiffIndex index() {
+    return fullResult().index();
+  }
+
+  @Override
+  void forEachDiff(@NotNull Consumer<GsonDiff<?>> action) {
+    fullResult().forEachDiff(action);
+  }
+
+  /**
+   * Retrieve the full diff, computing it if necessary
+   *
+   * @return the full diff
+   */
+  @NotNull
+  GsonDiffResult fullResult() {
+    GsonDiffResult result = fullResult;
+    if (result == null) {
+      result = gsonDiffer.diff(before, after);
+      fullResult = result;
+      pathResults.clear();
+    }
+    return result;
+  }
+
+  /**
+   * Retrieve a diff containing at least the requested property, computing it if necessary
+   *
+   * @param key the property's name
+   * @return a diff containing the property if it differs
+   */
+  private @NotNull GsonDiffResult resultFor(@NotNull String key) {
+    GsonDiffResult result = fullResult;
+    if (result != null) {
+      return result;
+    }
+    return pathResults.computeIfAbsent(key, this::diffPath);
+  }
+
+  /**
+   * Diff the two objects only along the path to a single property
+   *
+   * @param key the property's name
+   * @return a diff containing the property if it differs
+   * @throws IllegalStateException when there is a type conflict along the path under {@link
+   *     GsonConflictPolicy#FAIL}
+   */
+  private @NotNull GsonDiffResult diffPath(@NotNull String key) {
+    String[] segments = key.split("\\.", -1);
+    JsonElement beforeElement = before;
+    JsonElement afterElement = after;
+    String fullKey = "";
+    for (int i = 0; i < segments.length; i++) {
+      if (typesConflict(beforeElement, afterElement)) {
+        switch (gsonDiffer.conflictPolicy()) {
+          case RECORD:
+            // The conflict is recorded against the parent rather than its nested properties
+            return EMPTY;
+          case REPLACE:
+            // Only the side that is still an object has nested properties
+            break;
+          default:
+            throw gsonDiffer.typeConflict(fullKey, beforeElement, afterElement);
+        }
+      }
+      // Missing and null parents are treated alike, just as in a full diff
+      JsonObject beforeObject = asObjectOrNull(beforeElement);
+      JsonObject afterObject = asObjectOrNull(afterElement);
+      if (beforeObject == null && afterObject == null) {
+        // Arrays, primitives and nulls have no nested properties
+        return EMPTY;
+      }
+      fullKey = (i == 0) ? segments[i] : fullKey + "." + segments[i];
+      beforeElement = (beforeObject == null) ? null : beforeObject.get(segments[i]);
+      afterElement = (afterObject == null) ? null : afterObject.get(segments[i]);
+    }
+    if (!typesConflict(beforeElement, afterElement)
+        && (asObjectOrNull(beforeElement) != null || asObjectOrNull(afterElement) != null)) {
+      // Objects only produce diffs for their nested properties
+      return EMPTY;
+    }
+    GsonDiffResult.Builder diffBuilder = GsonDiffResult.builder();
+    gsonDiffer.diff(diffBuilder, fullKey, beforeElement, afterElement);
+    return diffBuilder.build();
+  }
+
+  private boolean typesConflict(
+      @Nullable JsonElement beforeElement, @Nullable JsonElement afterElement) {
+    return beforeElement != null
+        && afterElement != null
+        && gsonDiffer.typesConflict(beforeElement, afterElement);
+  }
+
+  private static @Nullable JsonObject asObjectOrNull(@Nullable JsonElement element) {
+    return (element != null && element.isJsonObject()) ? element.getAsJsonObject() : null;
+  }
+
+  /** This class serializes a lazy result as its full diff */
+  static class Serializer implements JsonSerializer<LazyGsonDiffResult> {
+    @Override
+    public JsonElement serialize(
+        @NotNull LazyGsonDiffResult src,
+        @NotNull Type typeOfSrc,
+        @NotNull JsonSerializationContext context) {
+      return context.serialize(src.fullResult(), GsonDiffResult.class);
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.github.brymck.gsondiff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.*;
+
+class GsonDiffIndexTest {
+  private GsonDiffResult result =
+      GsonDiffResult.builder()
+          .put("name", "Dane", "Bryan")
+          .put("address.city", "Tokyo", "London")
+          .put("address.zip", 100.0, 200.0)
+          .put("address.lines", 0, 2)
+          .put("addressee", false, true)
+          .put("married", false, true)
+          .build();
+
+  @Test
+  void iteratesOverAllTypesInKeyOrder() {
+    List<String> keys = new ArrayList<>();
+    result.index().forEach(diff -> keys.add(diff.getKey()));
+    assertEquals(
+        Arrays.asList(
+            "address.city", "address.lines", "address.zip", "addressee", "married", "name"),
+        keys);
+  }
+
+  @Test
+  void findsDiffsByPrefix() {
+    GsonDiffIndex address = result.index().withPrefix("address.");
+    assertAll(
+        () -> assertEquals(3, address.size()),
+        () ->
+            assertEquals(
+                Arrays.asList("address.city", "address.lines", "address.zip"), address.keys()),
+        () -> assertEquals("London", address.get("address.city").getRight()),
+        () -> assertNull(address.get("addressee")));
+  }
+
+  @Test
+  void findsDiffsByPrefixFollowedByTheHighestCharacter() {
+    GsonDiffIndex index =
+        GsonDiffResult.builder()
+            .put("a.b", "x", "y")
+            .put("a.\uFFFFz", "x", "y")
+            .put("a/", "x", "y")
+            .build()
+            .index();
+    assertAll(
+        () -> assertEquals(Arrays.asList("a.b", "a.\uFFFFz"), index.withPrefix("a.").keys()),
+        () -> assertEquals(2, index.countSubtree("a")));
+  }
+
+  @Test
+  void findsDiffsByRange() {
+    GsonDiffIndex range = result.index().range("address.lines", "married");
+    assertEquals(Arrays.asList("address.lines", "address.zip", "addressee"), range.keys());
+  }
+
+  @Test
+  void countsSubtrees() {
+    GsonDiffIndex index = result.index();
+    assertAll(
+        () -> assertEquals(3, index.countSubtree("address")),
+        () -> assertEquals(1, index.countSubtree("addressee")),
+        () -> assertEquals(1, index.countSubtree("name")),
+        () -> assertEquals(0, index.countSubtree("age")));
+  }
+
+  @Test
+  void sharesDiffsWithTheResult() {
+    assertSame(result.getStringDiff("name"), result.index().get("name"));
+  }
+
+  @Test
+  void indexesEveryDiffForPropertiesWithSeveralTypes() {
+    GsonDiffIndex index =
+        GsonDiffResult.builder()
+            .put("name", "Dane", "Bryan")
+            .put("v", "zero", null)
+            .put("v", null, 0.0)
+            .put("v.w", 0, 1)
+            .put("w", false, true)
+            .build()
+            .index();
+    assertAll(
+        () -> assertEquals(Arrays.asList("name", "v", "v", "v.w", "w"), index.keys()),
+        () -> assertEquals("zero", index.get("v").getLeft()),
+        () -> assertEquals(2, index.getAll("v").size()),
+        () -> assertEquals(0.0, index.getAll("v").diffs().get(1).getRight()),
+        () -> assertEquals(3, index.countSubtree("v")),
+        () -> assertEquals(0, index.getAll("x").size()),
+        () -> assertTrue(index.withPrefix("v").containsKey("v")),
+        () -> assertEquals(Arrays.asList("v", "v", "v.w"), index.range("v", "w").keys()));
+  }
+}
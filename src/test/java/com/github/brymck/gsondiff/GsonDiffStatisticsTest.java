@@ -0,0 +1,95 @@
+package com.github.brymck.gsondiff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.*;
+
+class GsonDiffStatisticsTest {
+  @Test
+  void countsChangesByPath() {
+    GsonDiffStatistics statistics = new GsonDiffStatistics();
+    for (int i = 0; i < 5; i++) {
+      statistics.add(GsonDiffResult.builder().put("name", "a", "b").put("age", 1.0, 3.0).build());
+    }
+    statistics.add(GsonDiffResult.builder().put("name", "b", "c").build());
+    GsonDiffStatistics.Snapshot snapshot = statistics.snapshot();
+    List<GsonDiffStatistics.PathCount> topPaths = snapshot.getTopPaths();
+    assertAll(
+        () -> assertEquals(6, snapshot.getResultCount()),
+        () -> assertEquals(11, snapshot.getDiffCount()),
+        () -> assertEquals(6, snapshot.estimateCount("name")),
+        () -> assertEquals(5, snapshot.estimateCount("age")),
+        () -> assertEquals("name", topPaths.get(0).getPath()),
+        () -> assertEquals("age", topPaths.get(1).getPath()));
+  }
+
+  @Test
+  void countsCompactStringChangesWithoutRebuildingThem() {
+    GsonDiffStatistics statistics = new GsonDiffStatistics();
+    statistics.add(
+        new GsonStringDiff("text", "The quick brown fox", "The quick red fox") {
+          @Override
+          public String getLeft() {
+            throw new AssertionError("The left-hand side was rebuilt");
+          }
+
+          @Override
+          public String getRight() {
+            throw new AssertionError("The right-hand side was rebuilt");
+          }
+        });
+    GsonDiffStatistics.Snapshot snapshot = statistics.snapshot();
+    assertAll(
+        () -> assertEquals(1, snapshot.getDiffCount()),
+        () -> assertEquals(1, snapshot.estimateCount("text")));
+  }
+
+  @Test
+  void recordsNumericChangesInHistograms() {
+    GsonDiffStatistics statistics = new GsonDiffStatistics();
+    statistics.add(
+        GsonDiffResult.builder()
+            .put("age", 1.0, 4.0)
+            .put("age2", 4.0, 1.0)
+            .put("list", -2, 1)
+            .build());
+    GsonDiffStatistics.DeltaHistogram doubles = statistics.snapshot().getDoubleDeltas();
+    GsonDiffStatistics.DeltaHistogram integers = statistics.snapshot().getIntegerDeltas();
+    int positive =
+        IntStream.range(0, doubles.getBucketCount())
+            .filter(bucket -> doubles.getCount(bucket) > 0 && doubles.getLowerBound(bucket) >= 0)
+            .findFirst()
+            .getAsInt();
+    assertAll(
+        () -> assertEquals(2, doubles.getTotalCount()),
+        () -> assertEquals(1, integers.getTotalCount()),
+        () -> assertTrue(doubles.getLowerBound(positive) <= 3.0),
+        () -> assertTrue(doubles.getUpperBound(positive) > 3.0));
+  }
+
+  @Test
+  void mergesSnapshots() {
+    GsonDiffStatistics statistics1 = new GsonDiffStatistics();
+    GsonDiffStatistics statistics2 = new GsonDiffStatistics();
+    statistics1.add(GsonDiffResult.builder().put("name", "a", "b").build());
+    statistics2.add(GsonDiffResult.builder().put("name", "b", "c").put("age", 1.0, 2.0).build());
+    GsonDiffStatistics.Snapshot merged = statistics1.snapshot().merge(statistics2.snapshot());
+    assertAll(
+        () -> assertEquals(2, merged.getResultCount()),
+        () -> assertEquals(2, merged.estimateCount("name")),
+        () -> assertEquals("name", merged.getTopPaths().get(0).getPath()),
+        () -> assertEquals(2, merged.getTopPaths().size()),
+        () -> assertEquals(1, merged.getDoubleDeltas().getTotalCount()));
+  }
+
+  @Test
+  void acceptsConcurrentUpdates() {
+    GsonDiffStatistics statistics = new GsonDiffStatistics();
+    IntStream.range(0, 10_000)
+        .parallel()
+        .forEach(i -> statistics.add(GsonDiffResult.builder().put("name", "a", "b").build()));
+    assertEquals(10_000, statistics.snapshot().estimateCount("name"));
+  }
+}
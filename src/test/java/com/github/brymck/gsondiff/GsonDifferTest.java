@@ -5,6 +5,14 @@ import static org.junit.jupiter.api.Assertions.*;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -443,6 +451,503 @@ class GsonDifferTest {
                 () -> gsonDiffer.diff(gson, jsonObject2, jsonObject1)));
   }
 
+  @Test
+  void typeConflictMessagesOnlyDescribeTypes() {
+    JsonObject jsonObject1 = gson.fromJson("{ \"value\": \"zero\" }", JsonObject.class);
+    JsonObject jsonObject2 = gson.fromJson("{ \"value\": [1, 2, 3] }", JsonObject.class);
+    IllegalStateException exception =
+        assertThrows(
+            IllegalStateException.class, () -> gsonDiffer.diff(gson, jsonObject1, jsonObject2));
+    assertEquals("Type of value conflicts: STRING and ARRAY", exception.getMessage());
+  }
+
+  @Test
+  void recordsTypeConflictsWhenRequested() {
+    GsonDiffer recordingGsonDiffer =
+        GsonDiffer.builder().conflictPolicy(GsonConflictPolicy.RECORD).build();
+    String beforeJson = "{ \"value\": \"zero\", \"person\": { \"age\": 34 }, \"name\": \"Dane\" }";
+    String afterJson = "{ \"value\": 0, \"person\": \"Bryan\", \"name\": \"Bryan\" }";
+    JsonObject beforeJsonObject = gson.fromJson(beforeJson, JsonObject.class);
+    JsonObject afterJsonObject = gson.fromJson(afterJson, JsonObject.class);
+    GsonDiffResult diffs = recordingGsonDiffer.diff(gson, beforeJsonObject, afterJsonObject);
+    GsonDiffResult lazyDiffs =
+        recordingGsonDiffer.diffLazily(gson, beforeJsonObject, afterJsonObject);
+    GsonDiff<GsonValueType> firstConflict = diffs.getTypeConflict("value");
+    assertAll(
+        () -> assertEquals(3, diffs.size()),
+        () -> assertEquals(GsonValueType.STRING, firstConflict.getLeft()),
+        () -> assertEquals(GsonValueType.NUMBER, firstConflict.getRight()),
+        () -> assertEquals(GsonValueType.OBJECT, diffs.getTypeConflict("person").getLeft()),
+        () -> assertEquals("Bryan", diffs.getStringDiff("name").getRight()),
+        () -> assertEquals(GsonValueType.NUMBER, lazyDiffs.getTypeConflict("value").getRight()),
+        () -> assertNull(lazyDiffs.getDoubleDiff("person.age")),
+        () -> assertEquals(diffs.index().keys(), lazyDiffs.index().keys()));
+  }
+
+  @Test
+  void replacesValuesWhoseTypesConflictWhenRequested() {
+    GsonDiffer replacingGsonDiffer =
+        GsonDiffer.builder().conflictPolicy(GsonConflictPolicy.REPLACE).build();
+    String beforeJson = "{ \"value\": \"zero\", \"person\": { \"age\": 34 } }";
+    String afterJson = "{ \"value\": 0, \"person\": [\"Bryan\"] }";
+    JsonObject beforeJsonObject = gson.fromJson(beforeJson, JsonObject.class);
+    JsonObject afterJsonObject = gson.fromJson(afterJson, JsonObject.class);
+    GsonDiffResult diffs = replacingGsonDiffer.diff(gson, beforeJsonObject, afterJsonObject);
+    GsonDiffResult lazyDiffs =
+        replacingGsonDiffer.diffLazily(gson, beforeJsonObject, afterJsonObject);
+    assertAll(
+        () -> assertEquals(4, diffs.size()),
+        () -> assertEquals("zero", diffs.getStringDiff("value").getLeft()),
+        () -> assertNull(diffs.getStringDiff("value").getRight()),
+        () -> assertNull(diffs.getDoubleDiff("value").getLeft()),
+        () -> assertEquals(0.0, diffs.getDoubleDiff("value").getRight()),
+        () -> assertEquals(34.0, diffs.getDoubleDiff("person.age").getLeft()),
+        () -> assertEquals(1, diffs.getIntegerDiff("person").getRight()),
+        () -> assertEquals(34.0, lazyDiffs.getDoubleDiff("person.age").getLeft()),
+        () -> assertEquals(0.0, lazyDiffs.getDoubleDiff("value").getRight()),
+        () -> assertEquals(2, diffs.index().getAll("value").size()),
+        () -> assertEquals(2, diffs.index().countSubtree("value")));
+  }
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      value = {
+        "{ \"a\": 1, \"b\": 2, \"c\": 3 }|{ \"a\": 1, \"b\": 5, \"c\": 3 }|b",
+        "{ \"a\": 1, \"b\": 2, \"c\": 3 }|{ \"a\": 1, \"c\": 3, \"b\": 5 }|b",
+        "{ \"a\": 1, \"b\": 2, \"c\": 3 }|{ \"a\": 1, \"d\": 4, \"c\": 4 }|b,c,d",
+        "{ \"a\": 1, \"b\": 2 }|{ \"a\": 1, \"b\": 2, \"c\": 3 }|c",
+        "{ \"a\": 1, \"b\": 2, \"c\": 3 }|{ \"a\": 1 }|b,c",
+        "{ \"c\": 3, \"b\": 2, \"a\": 1 }|{ \"a\": 0, \"b\": 2, \"c\": 0 }|a,c"
+      })
+  void createsDiffItemsRegardlessOfPropertyOrder(
+      String beforeJson, String afterJson, String changedKeys) {
+    JsonObject beforeJsonObject = gson.fromJson(beforeJson, JsonObject.class);
+    JsonObject afterJsonObject = gson.fromJson(afterJson, JsonObject.class);
+    GsonDiffResult diffs = gsonDiffer.diff(gson, beforeJsonObject, afterJsonObject);
+    assertEquals(Arrays.asList(changedKeys.split(",")), diffs.index().keys());
+  }
+
+  @Test
+  void createsCompactDiffItemsForChangesInLongStrings() {
+    GsonDiffer compactGsonDiffer = GsonDiffer.builder().compactStrings(10).build();
+    String beforeJson = "{ \"text\": \"The quick brown fox\", \"name\": \"Dane\" }";
+    String afterJson = "{ \"text\": \"The quick red fox\", \"name\": \"Bryan\" }";
+    JsonObject beforeJsonObject = gson.fromJson(beforeJson, JsonObject.class);
+    JsonObject afterJsonObject = gson.fromJson(afterJson, JsonObject.class);
+    GsonDiffResult diffs = compactGsonDiffer.diff(gson, beforeJsonObject, afterJsonObject);
+    GsonStringDiff textDiff = (GsonStringDiff) diffs.getStringDiff("text");
+    assertAll(
+        () -> assertEquals(2, diffs.size()),
+        () -> assertFalse(diffs.getStringDiff("name") instanceof GsonStringDiff),
+        () -> assertEquals("The quick brown fox", textDiff.getLeft()),
+        () -> assertEquals("The quick red fox", textDiff.getRight()),
+        () -> assertEquals(10, textDiff.getPrefixLength()),
+        () -> assertEquals(4, textDiff.getSuffixLength()),
+        () -> assertEquals("brown", textDiff.getLeftMiddle()),
+        () -> assertEquals("red", textDiff.getRightMiddle()));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "abc,abcd",
+    "abcd,abc",
+    "abc,xbc",
+    "aaaa,aa",
+    "'',abc",
+    "\uD83D\uDE00a,\uD83D\uDE01a"
+  })
+  void compactStringDiffsRebuildBothSides(String left, String right) {
+    GsonStringDiff diff = new GsonStringDiff("text", left, right);
+    assertAll(
+        () -> assertEquals(left, diff.getLeft()),
+        () -> assertEquals(right, diff.getRight()),
+        () ->
+            assertEquals(
+                left.length(),
+                diff.getPrefixLength() + diff.getLeftMiddle().length() + diff.getSuffixLength()));
+  }
+
+  @Test
+  void lazyDiffsOnlyCompareRequestedPaths() {
+    String beforeJson = "{ \"person\": { \"name\": \"Dane\", \"age\": 34 }, \"value\": 0 }";
+    String afterJson = "{ \"person\": { \"name\": \"Bryan\", \"age\": 34 }, \"value\": [] }";
+    JsonObject beforeJsonObject = gson.fromJson(beforeJson, JsonObject.class);
+    JsonObject afterJsonObject = gson.fromJson(afterJson, JsonObject.class);
+    GsonDiffResult diffs = gsonDiffer.diffLazily(gson, beforeJsonObject, afterJsonObject);
+    GsonDiff<String> firstDiff = diffs.getStringDiff("person.name");
+    assertAll(
+        () -> assertEquals("Bryan", firstDiff.getRight()),
+        () -> assertEquals("Dane", firstDiff.getLeft()),
+        () -> assertNull(diffs.getDoubleDiff("person.age")),
+        () -> assertNull(diffs.getStringDiff("person.name.first")),
+        () -> assertThrows(IllegalStateException.class, () -> diffs.getIntegerDiff("value")),
+        () -> assertThrows(IllegalStateException.class, diffs::size));
+  }
+
+  @Test
+  void lazyDiffsMatchFullDiffs() {
+    String beforeJson =
+        "{ \"person\": null, \"countries\": [\"JP\"], \"married\": true, \"age\": 34 }";
+    String afterJson =
+        "{ \"person\": { \"name\": \"Bryan\" }, \"countries\": [\"US\"], \"age\": 35 }";
+    JsonObject beforeJsonObject = gson.fromJson(beforeJson, JsonObject.class);
+    JsonObject afterJsonObject = gson.fromJson(afterJson, JsonObject.class);
+    GsonDiffResult lazyDiffs = gsonDiffer.diffLazily(gson, beforeJsonObject, afterJsonObject);
+    GsonDiffResult diffs = gsonDiffer.diff(gson, beforeJsonObject, afterJsonObject);
+    assertAll(
+        () -> assertEquals("Bryan", lazyDiffs.getStringDiff("person.name").getRight()),
+        () -> assertEquals(-1, lazyDiffs.getIntegerDiff("countries").getLeft()),
+        () -> assertEquals(true, lazyDiffs.getBooleanDiff("married").getLeft()),
+        () -> assertEquals(35.0, lazyDiffs.getDoubleDiff("age").getRight()),
+        () -> assertEquals(diffs.size(), lazyDiffs.size()),
+        () -> assertEquals(diffs.index().keys(), lazyDiffs.index().keys()));
+  }
+
+  @Test
+  void threeWayDiffsClassifyChangesBySide() {
+    String baseJson =
+        "{ \"name\": \"Dane\", \"age\": 34, \"married\": false, \"city\": \"Tokyo\" }";
+    String leftJson =
+        "{ \"name\": \"Bryan\", \"age\": 35, \"married\": true, \"city\": \"Tokyo\" }";
+    String rightJson =
+        "{ \"name\": \"Dane\", \"age\": 36, \"married\": true, \"city\": \"London\" }";
+    JsonObject baseJsonObject = gson.fromJson(baseJson, JsonObject.class);
+    JsonObject leftJsonObject = gson.fromJson(leftJson, JsonObject.class);
+    JsonObject rightJsonObject = gson.fromJson(rightJson, JsonObject.class);
+    GsonThreeWayDiffResult diffs =
+        gsonDiffer.threeWayDiff(gson, baseJsonObject, leftJsonObject, rightJsonObject);
+    GsonThreeWayDiff<Double> ageDiff = diffs.getDoubleDiff("age");
+    assertAll(
+        () -> assertEquals(4, diffs.size()),
+        () -> assertEquals(1, diffs.size(GsonThreeWayDiff.Status.CONFLICT)),
+        () ->
+            assertEquals(
+                GsonThreeWayDiff.Status.LEFT_ONLY, diffs.getStringDiff("name").getStatus()),
+        () ->
+            assertEquals(
+                GsonThreeWayDiff.Status.RIGHT_ONLY, diffs.getStringDiff("city").getStatus()),
+        () ->
+            assertEquals(
+                GsonThreeWayDiff.Status.BOTH_SAME, diffs.getBooleanDiff("married").getStatus()),
+        () -> assertEquals(GsonThreeWayDiff.Status.CONFLICT, ageDiff.getStatus()),
+        () -> assertEquals(35.0, ageDiff.getLeftDiff().getRight()),
+        () -> assertEquals(36.0, ageDiff.getRightDiff().getRight()));
+  }
+
+  @Test
+  void threeWayDiffsCompareNestedAndAddedObjects() {
+    String baseJson = "{ \"countries\": [\"JP\"] }";
+    String leftJson = "{ \"person\": { \"name\": \"Bryan\" }, \"countries\": [\"US\"] }";
+    String rightJson = "{ \"person\": { \"name\": \"Dane\" }, \"countries\": [\"GB\"] }";
+    JsonObject baseJsonObject = gson.fromJson(baseJson, JsonObject.class);
+    JsonObject leftJsonObject = gson.fromJson(leftJson, JsonObject.class);
+    JsonObject rightJsonObject = gson.fromJson(rightJson, JsonObject.class);
+    GsonThreeWayDiffResult diffs =
+        gsonDiffer.threeWayDiff(gson, baseJsonObject, leftJsonObject, rightJsonObject);
+    assertAll(
+        () -> assertEquals(2, diffs.size(GsonThreeWayDiff.Status.CONFLICT)),
+        () -> assertEquals("Dane", diffs.getStringDiff("person.name").getRightDiff().getRight()),
+        () -> assertEquals(-1, diffs.getIntegerDiff("countries").getLeftDiff().getLeft()));
+  }
+
+  @Test
+  void threeWayDiffsCompareObjectsRemovedByOneSide() {
+    String baseJson = "{ \"k\": { \"a\": 1, \"b\": 1 } }";
+    JsonObject baseJsonObject = gson.fromJson(baseJson, JsonObject.class);
+    JsonObject leftJsonObject = gson.fromJson("{ \"k\": { \"b\": 2 } }", JsonObject.class);
+    JsonObject rightJsonObject = gson.fromJson("{}", JsonObject.class);
+    GsonThreeWayDiffResult diffs =
+        gsonDiffer.threeWayDiff(gson, baseJsonObject, leftJsonObject, rightJsonObject);
+    GsonThreeWayDiff<Double> bDiff = diffs.getDoubleDiff("k.b");
+    assertAll(
+        () -> assertEquals(2, diffs.size()),
+        () ->
+            assertEquals(GsonThreeWayDiff.Status.BOTH_SAME, diffs.getDoubleDiff("k.a").getStatus()),
+        () -> assertEquals(GsonThreeWayDiff.Status.CONFLICT, bDiff.getStatus()),
+        () -> assertEquals(2.0, bDiff.getLeftDiff().getRight()),
+        () -> assertNull(bDiff.getRightDiff().getRight()));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "'[\"US\", \"JP\"]', BOTH_SAME",
+    "'[\"JP\", \"US\", \"US\"]', BOTH_SAME",
+    "'[\"JP\", \"FR\"]', CONFLICT",
+  })
+  void threeWayDiffsCompareListsAsSets(String rightCountries, GsonThreeWayDiff.Status status) {
+    JsonObject baseJsonObject = gson.fromJson("{ \"countries\": [\"JP\"] }", JsonObject.class);
+    JsonObject leftJsonObject =
+        gson.fromJson("{ \"countries\": [\"JP\", \"US\"] }", JsonObject.class);
+    JsonObject rightJsonObject =
+        gson.fromJson("{ \"countries\": " + rightCountries + " }", JsonObject.class);
+    GsonThreeWayDiffResult diffs =
+        gsonDiffer.threeWayDiff(gson, baseJsonObject, leftJsonObject, rightJsonObject);
+    assertEquals(status, diffs.getIntegerDiff("countries").getStatus());
+  }
+
+  @Test
+  void threeWayDiffsTreatNullsAsMissingWhenComparingObjects() {
+    JsonObject baseJsonObject = gson.fromJson("{}", JsonObject.class);
+    JsonObject leftJsonObject =
+        gson.fromJson("{ \"person\": { \"age\": 35, \"name\": null } }", JsonObject.class);
+    JsonObject rightJsonObject =
+        gson.fromJson("{ \"person\": { \"age\": 35.0 } }", JsonObject.class);
+    GsonThreeWayDiffResult diffs =
+        gsonDiffer.threeWayDiff(gson, baseJsonObject, leftJsonObject, rightJsonObject);
+    assertEquals(GsonThreeWayDiff.Status.BOTH_SAME, diffs.getDoubleDiff("person.age").getStatus());
+  }
+
+  @Test
+  void threeWayDiffsThrowAnExceptionWhenTypesConflict() {
+    JsonObject baseJsonObject = gson.fromJson("{}", JsonObject.class);
+    JsonObject leftJsonObject = gson.fromJson("{ \"value\": 0 }", JsonObject.class);
+    JsonObject rightJsonObject = gson.fromJson("{ \"value\": \"zero\" }", JsonObject.class);
+    assertThrows(
+        IllegalStateException.class,
+        () -> gsonDiffer.threeWayDiff(gson, baseJsonObject, leftJsonObject, rightJsonObject));
+  }
+
+  @Test
+  void threeWayDiffsReplaceValuesWhoseTypesConflictWhenRequested() {
+    GsonDiffer replacingGsonDiffer =
+        GsonDiffer.builder().conflictPolicy(GsonConflictPolicy.REPLACE).build();
+    JsonObject baseJsonObject = gson.fromJson("{ \"value\": \"zero\" }", JsonObject.class);
+    JsonObject leftJsonObject = gson.fromJson("{ \"value\": 0 }", JsonObject.class);
+    JsonObject rightJsonObject = gson.fromJson("{ \"value\": \"one\" }", JsonObject.class);
+    GsonThreeWayDiffResult diffs =
+        replacingGsonDiffer.threeWayDiff(gson, baseJsonObject, leftJsonObject, rightJsonObject);
+    assertAll(
+        () -> assertEquals(2, diffs.size()),
+        () -> assertNull(diffs.getTypeConflict("value")),
+        () ->
+            assertEquals(
+                GsonThreeWayDiff.Status.CONFLICT, diffs.getStringDiff("value").getStatus()),
+        () -> assertNull(diffs.getStringDiff("value").getLeftDiff().getRight()),
+        () -> assertEquals("one", diffs.getStringDiff("value").getRightDiff().getRight()),
+        () ->
+            assertEquals(
+                GsonThreeWayDiff.Status.LEFT_ONLY, diffs.getDoubleDiff("value").getStatus()));
+  }
+
+  @Test
+  void threeWayDiffsRecordTypeConflictsWhenRequested() {
+    GsonDiffer recordingGsonDiffer =
+        GsonDiffer.builder().conflictPolicy(GsonConflictPolicy.RECORD).build();
+    JsonObject baseJsonObject = gson.fromJson("{ \"name\": \"Dane\" }", JsonObject.class);
+    JsonObject leftJsonObject =
+        gson.fromJson("{ \"name\": \"Dane\", \"value\": 0 }", JsonObject.class);
+    JsonObject rightJsonObject =
+        gson.fromJson("{ \"name\": \"Bryan\", \"value\": \"zero\" }", JsonObject.class);
+    GsonThreeWayDiffResult diffs =
+        recordingGsonDiffer.threeWayDiff(gson, baseJsonObject, leftJsonObject, rightJsonObject);
+    GsonThreeWayDiff<GsonValueType> conflict = diffs.getTypeConflict("value");
+    assertAll(
+        () -> assertEquals(2, diffs.size()),
+        () -> assertEquals(GsonThreeWayDiff.Status.CONFLICT, conflict.getStatus()),
+        () -> assertEquals(GsonValueType.NULL, conflict.getLeftDiff().getLeft()),
+        () -> assertEquals(GsonValueType.NUMBER, conflict.getLeftDiff().getRight()),
+        () -> assertEquals(GsonValueType.STRING, conflict.getRightDiff().getRight()),
+        () -> assertEquals(1, diffs.size(GsonThreeWayDiff.Status.RIGHT_ONLY)));
+  }
+
+  @Test
+  void threeWayDiffsRecordTypeConflictsMadeByOneSideAsThatSides() {
+    GsonDiffer recordingGsonDiffer =
+        GsonDiffer.builder().conflictPolicy(GsonConflictPolicy.RECORD).build();
+    JsonObject baseJsonObject = gson.fromJson("{ \"value\": \"x\" }", JsonObject.class);
+    JsonObject leftJsonObject = gson.fromJson("{ \"value\": \"x\" }", JsonObject.class);
+    JsonObject rightJsonObject = gson.fromJson("{ \"value\": 5 }", JsonObject.class);
+    GsonThreeWayDiffResult diffs =
+        recordingGsonDiffer.threeWayDiff(gson, baseJsonObject, leftJsonObject, rightJsonObject);
+    GsonThreeWayDiff<GsonValueType> conflict = diffs.getTypeConflict("value");
+    assertAll(
+        () -> assertEquals(1, diffs.size()),
+        () -> assertEquals(GsonThreeWayDiff.Status.RIGHT_ONLY, conflict.getStatus()),
+        () -> assertNull(conflict.getLeftDiff()),
+        () -> assertEquals(GsonValueType.STRING, conflict.getRightDiff().getLeft()),
+        () -> assertEquals(GsonValueType.NUMBER, conflict.getRightDiff().getRight()));
+  }
+
+  @Test
+  void diffsPrimitiveArraysLikeLists() {
+    double[] before = {1.0, 2.0, 3.0, 4.0, 4.0};
+    double[] after = {1.0, 2.5, 3.0, 5.0, 5.0, 6.0};
+    GsonArrayDiff arrayDiff = gsonDiffer.diffArrays(before, after, true);
+    JsonObject beforeJsonObject = new JsonObject();
+    JsonObject afterJsonObject = new JsonObject();
+    beforeJsonObject.add("values", gson.toJsonTree(before));
+    afterJsonObject.add("values", gson.toJsonTree(after));
+    GsonDiff<Integer> listDiff =
+        gsonDiffer.diff(gson, beforeJsonObject, afterJsonObject).getIntegerDiff("values");
+    assertAll(
+        () -> assertEquals(-arrayDiff.getRemovedCount(), listDiff.getLeft()),
+        () -> assertEquals(arrayDiff.getAddedCount(), listDiff.getRight()),
+        () -> assertEquals(2, arrayDiff.getChangedRangeCount()),
+        () -> assertEquals(1, arrayDiff.getChangedRangeStart(0)),
+        () -> assertEquals(2, arrayDiff.getChangedRangeEnd(0)),
+        () -> assertEquals(3, arrayDiff.getChangedRangeStart(1)),
+        () -> assertEquals(6, arrayDiff.getChangedRangeEnd(1)));
+  }
+
+  @Test
+  void diffsIntegerArrays() {
+    GsonArrayDiff unchanged = gsonDiffer.diffArrays(new int[] {1, 2}, new int[] {1, 2}, true);
+    GsonArrayDiff reordered = gsonDiffer.diffArrays(new int[] {1, 2}, new int[] {2, 1}, false);
+    GsonArrayDiff changed = gsonDiffer.diffArrays(new int[] {1, 2, 2}, new int[] {3, 1}, false);
+    assertAll(
+        () -> assertFalse(unchanged.isChanged()),
+        () -> assertEquals(0, unchanged.getChangedRangeCount()),
+        () -> assertFalse(reordered.isChanged()),
+        () -> assertEquals(2, changed.getRemovedCount()),
+        () -> assertEquals(1, changed.getAddedCount()),
+        () -> assertEquals(0, changed.getChangedRangeCount()));
+  }
+
+  @Test
+  void diffsLargeArraysWithFewChanges() {
+    int[] before = new int[100_000];
+    for (int i = 0; i < before.length; i++) {
+      before[i] = i;
+    }
+    int[] after = Arrays.copyOf(before, before.length + 1);
+    after[10] = 5;
+    after[20] = -1;
+    after[before.length] = 7;
+    double[] doubleBefore = Arrays.stream(before).asDoubleStream().toArray();
+    double[] doubleAfter = Arrays.stream(after).asDoubleStream().toArray();
+    doubleAfter[30] = Double.NaN;
+    GsonArrayDiff arrayDiff = gsonDiffer.diffArrays(before, after, false);
+    GsonArrayDiff doubleArrayDiff = gsonDiffer.diffArrays(doubleBefore, doubleAfter, false);
+    assertAll(
+        () -> assertEquals(1, arrayDiff.getAddedCount()),
+        () -> assertEquals(2, arrayDiff.getRemovedCount()),
+        () -> assertEquals(2, doubleArrayDiff.getAddedCount()),
+        () -> assertEquals(3, doubleArrayDiff.getRemovedCount()));
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1,20", "2,20", "3,5", "4,2", "5,1"})
+  void diffsArraysLikeListsHoweverManyItemsChange(long seed, int changeEvery) {
+    Random random = new Random(seed);
+    int[] before = random.ints(200, 0, 50).toArray();
+    int[] after = Arrays.copyOf(before, 180 + random.nextInt(40));
+    for (int i = 0; i < after.length; i++) {
+      if (i >= before.length || random.nextInt(changeEvery) == 0) {
+        after[i] = random.nextInt(60);
+      }
+    }
+    GsonArrayDiff arrayDiff = gsonDiffer.diffArrays(before, after, false);
+    JsonObject beforeJsonObject = new JsonObject();
+    JsonObject afterJsonObject = new JsonObject();
+    beforeJsonObject.add("values", gson.toJsonTree(before));
+    afterJsonObject.add("values", gson.toJsonTree(after));
+    GsonDiff<Integer> listDiff =
+        gsonDiffer.diff(gson, beforeJsonObject, afterJsonObject).getIntegerDiff("values");
+    int removedCount = (listDiff == null) ? 0 : -listDiff.getLeft();
+    int addedCount = (listDiff == null) ? 0 : listDiff.getRight();
+    assertAll(
+        () -> assertEquals(removedCount, arrayDiff.getRemovedCount()),
+        () -> assertEquals(addedCount, arrayDiff.getAddedCount()));
+  }
+
+  @Test
+  void diffsVersionHistories() {
+    List<JsonObject> versions =
+        Stream.of(
+                "{ \"name\": \"Dane\", \"person\": { \"age\": 34, \"countries\": [\"JP\"] } }",
+                "{ \"name\": \"Bryan\", \"person\": { \"age\": 34, \"countries\": [\"JP\"] } }",
+                "{ \"name\": \"Bryan\", \"person\": { \"age\": 35, \"countries\": [\"JP\"] } }",
+                "{ \"name\": \"Bryan\", \"person\": { \"age\": 35 }, \"married\": true }")
+            .map(json -> gson.fromJson(json, JsonObject.class))
+            .collect(Collectors.toList());
+    GsonDiffHistory history = gsonDiffer.diffHistory(gson, versions, true);
+    List<GsonDiffResult> diffs = history.getDiffs();
+    GsonDiffResult cumulativeDiff = history.getCumulativeDiff();
+    assertAll(
+        () -> assertEquals(3, diffs.size()),
+        () -> assertEquals(Arrays.asList("name"), diffs.get(0).index().keys()),
+        () -> assertEquals(Arrays.asList("person.age"), diffs.get(1).index().keys()),
+        () ->
+            assertEquals(Arrays.asList("married", "person.countries"), diffs.get(2).index().keys()),
+        () ->
+            assertEquals(
+                gsonDiffer.diff(gson, versions.get(0), versions.get(3)).index().keys(),
+                cumulativeDiff.index().keys()),
+        () -> assertEquals("Dane", cumulativeDiff.getStringDiff("name").getLeft()),
+        () -> assertEquals(35.0, cumulativeDiff.getDoubleDiff("person.age").getRight()));
+  }
+
+  @Test
+  void diffsVersionHistoriesWithoutCumulativeDiffs() {
+    JsonObject version = gson.fromJson("{ \"name\": \"Bryan\" }", JsonObject.class);
+    GsonDiffHistory history =
+        gsonDiffer.diffHistory(gson, Collections.singletonList(version), false);
+    assertAll(
+        () -> assertEquals(0, history.getDiffs().size()),
+        () -> assertNull(history.getCumulativeDiff()));
+  }
+
+  @Test
+  void diffsMapsOfObjects() {
+    JsonObject unchanged = gson.fromJson("{ \"name\": \"Dane\" }", JsonObject.class);
+    Map<String, JsonObject> before = new HashMap<>();
+    Map<String, JsonObject> after = new HashMap<>();
+    before.put("same", unchanged);
+    after.put("same", unchanged);
+    before.put("equal", gson.fromJson("{ \"age\": 34 }", JsonObject.class));
+    after.put("equal", gson.fromJson("{ \"age\": 34 }", JsonObject.class));
+    before.put("changed", gson.fromJson("{ \"age\": 34 }", JsonObject.class));
+    after.put("changed", gson.fromJson("{ \"age\": 35 }", JsonObject.class));
+    before.put("removed", unchanged);
+    before.put("nulled", unchanged);
+    after.put("nulled", null);
+    after.put("added", unchanged);
+    GsonMapDiffResult<String, JsonObject> diffs = gsonDiffer.diffMaps(gson, before, after);
+    assertAll(
+        () -> assertEquals(4, diffs.size()),
+        () -> assertEquals(Collections.singleton("added"), diffs.getAdded().keySet()),
+        () -> assertEquals(2, diffs.getRemoved().size()),
+        () -> assertSame(unchanged, diffs.getRemoved().get("nulled")),
+        () -> assertEquals(Collections.singleton("changed"), diffs.getChanged().keySet()),
+        () -> assertEquals(35.0, diffs.getChanged("changed").getDoubleDiff("age").getRight()));
+  }
+
+  @Test
+  void diffsLargeMapsOfObjectsInParallel() {
+    Map<Integer, JsonObject> before = new HashMap<>();
+    Map<Integer, JsonObject> after = new HashMap<>();
+    for (int i = 0; i < 10_000; i++) {
+      before.put(i, gson.fromJson(String.format("{ \"value\": %d }", i), JsonObject.class));
+      after.put(i, gson.fromJson(String.format("{ \"value\": %d }", i - i % 3), JsonObject.class));
+    }
+    GsonMapDiffResult<Integer, JsonObject> diffs = gsonDiffer.diffMaps(gson, before, after);
+    assertAll(
+        () -> assertEquals(6_666, diffs.getChanged().size()),
+        () -> assertNull(diffs.getChanged(9_999)),
+        () -> assertEquals(9_996.0, diffs.getChanged(9_998).getDoubleDiff("value").getRight()));
+  }
+
+  @Test
+  void diffsMapsWithNullKeys() {
+    JsonObject unchanged = gson.fromJson("{ \"name\": \"Dane\" }", JsonObject.class);
+    Map<String, JsonObject> before = new HashMap<>();
+    Map<String, JsonObject> after = new HashMap<>();
+    before.put(null, gson.fromJson("{ \"age\": 34 }", JsonObject.class));
+    after.put(null, gson.fromJson("{ \"age\": 35 }", JsonObject.class));
+    GsonMapDiffResult<String, JsonObject> changedDiffs = gsonDiffer.diffMaps(gson, before, after);
+    GsonMapDiffResult<String, JsonObject> addedDiffs =
+        gsonDiffer.diffMaps(
+            gson, Collections.emptyMap(), Collections.singletonMap(null, unchanged));
+    GsonMapDiffResult<String, JsonObject> removedDiffs =
+        gsonDiffer.diffMaps(
+            gson, Collections.singletonMap(null, unchanged), Collections.emptyMap());
+    assertAll(
+        () -> assertEquals(35.0, changedDiffs.getChanged(null).getDoubleDiff("age").getRight()),
+        () -> assertSame(unchanged, addedDiffs.getAdded().get(null)),
+        () -> assertSame(unchanged, removedDiffs.getRemoved().get(null)));
+  }
+
   @Test
   void diffsCanBeSerializedAndDeserialized() {
     GsonDiffResult builder =
@@ -464,4 +969,43 @@ class GsonDifferTest {
         () -> assertEquals(false, roundTripBuilder.getBooleanDiff("boolean").getLeft()),
         () -> assertEquals(true, roundTripBuilder.getBooleanDiff("boolean").getRight()));
   }
+
+  @Test
+  void lazyDiffsCanBeSerializedAndDeserialized() {
+    String beforeJson = "{ \"name\": \"Dane\", \"age\": 34 }";
+    String afterJson = "{ \"name\": \"Bryan\", \"age\": 35 }";
+    JsonObject beforeJsonObject = gson.fromJson(beforeJson, JsonObject.class);
+    JsonObject afterJsonObject = gson.fromJson(afterJson, JsonObject.class);
+    GsonDiffResult lazyDiffs = gsonDiffer.diffLazily(gson, beforeJsonObject, afterJsonObject);
+    lazyDiffs.getStringDiff("name");
+    String json = gson.toJson(lazyDiffs);
+    GsonDiffResult roundTripDiffs = gson.fromJson(json, GsonDiffResult.class);
+    assertAll(
+        () -> assertEquals(2, roundTripDiffs.size()),
+        () -> assertEquals("Bryan", roundTripDiffs.getStringDiff("name").getRight()),
+        () -> assertEquals(35.0, roundTripDiffs.getDoubleDiff("age").getRight()),
+        () ->
+            assertEquals(
+                json, gson.toJson(gsonDiffer.diff(gson, beforeJsonObject, afterJsonObject))));
+  }
+
+  @Test
+  void compactDiffsCanBeSerializedAndDeserialized() {
+    GsonDiffer compactGsonDiffer = GsonDiffer.builder().compactStrings(10).build();
+    String beforeJson = "{ \"text\": \"The quick brown fox\" }";
+    String afterJson = "{ \"text\": \"The quick red fox\" }";
+    JsonObject beforeJsonObject = gson.fromJson(beforeJson, JsonObject.class);
+    JsonObject afterJsonObject = gson.fromJson(afterJson, JsonObject.class);
+    GsonDiffResult diffs = compactGsonDiffer.diff(gson, beforeJsonObject, afterJsonObject);
+    String json = gson.toJson(diffs);
+    GsonDiffResult roundTripDiffs = gson.fromJson(json, GsonDiffResult.class);
+    assertAll(
+        () -> assertTrue(diffs.getStringDiff("text") instanceof GsonStringDiff),
+        () -> assertFalse(json.contains("The quick brown fox")),
+        () -> assertFalse(json.contains("The quick red fox")),
+        () -> assertTrue(roundTripDiffs.getStringDiff("text") instanceof GsonStringDiff),
+        () -> assertEquals("text", roundTripDiffs.getStringDiff("text").getKey()),
+        () -> assertEquals("The quick brown fox", roundTripDiffs.getStringDiff("text").getLeft()),
+        () -> assertEquals("The quick red fox", roundTripDiffs.getStringDiff("text").getRight()));
+  }
 }
@@ -0,0 +1,74 @@
+package com.github.brymck.gsondiff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class GsonFingerprintTest {
+  private Gson gson = new GsonBuilder().serializeNulls().create();
+  private GsonDiffer gsonDiffer = new GsonDiffer();
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      value = {
+        "{ \"name\": \"Dane\" }|{ \"name\": \"Bryan\" }",
+        "{ \"age\": 34 }|{ \"age\": 35 }",
+        "{ \"married\": true }|{ \"married\": false }",
+        "{ \"countries\": [\"JP\", \"US\"] }|{ \"countries\": [\"US\", \"JP\", \"US\"] }",
+        "{ \"countries\": [\"JP\"] }|{ \"countries\": [\"US\"] }",
+        "{ \"name\": null }|{}",
+        "{}|{ \"person\": { \"name\": \"Bryan\", \"age\": 35 } }",
+        "{ \"person\": { \"name\": \"Bryan\", \"age\": 35 } }|{ \"person\": null }",
+        "{ \"person\": { \"name\": \"Dane\", \"age\": 35 } }|{ \"person\": { \"age\": 35, \"name\": \"Bryan\" } }",
+        "{ \"a\": 1, \"b\": { \"c\": [1, 2], \"d\": { \"e\": \"f\" } } }|{ \"b\": { \"d\": { \"e\": \"f\" }, \"c\": [2, 1] }, \"a\": 1.0 }"
+      })
+  void reportsTheSamePathsAsDiffs(String beforeJson, String afterJson) {
+    JsonObject beforeJsonObject = gson.fromJson(beforeJson, JsonObject.class);
+    JsonObject afterJsonObject = gson.fromJson(afterJson, JsonObject.class);
+    GsonDiffResult diffs = gsonDiffer.diff(gson, beforeJsonObject, afterJsonObject);
+    GsonFingerprint fingerprint = GsonFingerprint.of(beforeJsonObject);
+    assertEquals(diffs.index().keys(), new ArrayList<>(fingerprint.changedPaths(afterJsonObject)));
+  }
+
+  @Test
+  void canBeSerializedAndDeserialized() {
+    JsonObject before =
+        gson.fromJson(
+            "{ \"name\": \"Dane\", \"person\": { \"age\": 34, \"city\": \"Tokyo\" } }",
+            JsonObject.class);
+    JsonObject after =
+        gson.fromJson(
+            "{ \"name\": \"Dane\", \"person\": { \"age\": 35, \"city\": \"Tokyo\" } }",
+            JsonObject.class);
+    GsonFingerprint fingerprint = GsonFingerprint.of(gson, before);
+    GsonFingerprint roundTripFingerprint = GsonFingerprint.fromByteArray(fingerprint.toByteArray());
+    assertAll(
+        () -> assertEquals(fingerprint.getHash(), roundTripFingerprint.getHash()),
+        () -> assertEquals(0, roundTripFingerprint.changedPaths(before).size()),
+        () ->
+            assertEquals(
+                Arrays.asList("person.age"),
+                new ArrayList<>(roundTripFingerprint.changedPaths(gson, after))));
+  }
+
+  @Test
+  void rejectsMalformedBytes() {
+    byte[] bytes = GsonFingerprint.of(new JsonObject()).toByteArray();
+    assertAll(
+        () ->
+            assertThrows(
+                IllegalArgumentException.class, () -> GsonFingerprint.fromByteArray(new byte[0])),
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> GsonFingerprint.fromByteArray(Arrays.copyOf(bytes, bytes.length + 1))));
+  }
+}
@@ -0,0 +1,91 @@
+package com.github.brymck.gsondiff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.*;
+
+class GsonTrackedObjectTest {
+  private static final String JSON =
+      "{ \"name\": \"Dane\", \"person\": { \"age\": 34, \"countries\": [\"JP\"] }, \"value\": 0 }";
+
+  private Gson gson = new GsonBuilder().serializeNulls().create();
+  private GsonDiffer gsonDiffer = new GsonDiffer();
+
+  @Test
+  void recordsTheOutermostDirtyPaths() {
+    GsonTrackedObject trackedObject = GsonTrackedObject.of(gson, parse(JSON));
+    trackedObject
+        .set("person.age", new JsonPrimitive(35))
+        .set("person.address.city", new JsonPrimitive("Tokyo"))
+        .set("person.address.country", new JsonPrimitive("JP"))
+        .remove("value")
+        .remove("missing.value");
+    assertAll(
+        () ->
+            assertEquals(
+                Arrays.asList("person.address", "person.age", "value"),
+                Arrays.asList(trackedObject.getDirtyPaths().toArray())),
+        () -> assertEquals("Tokyo", trackedObject.get("person.address.city").getAsString()),
+        () -> assertNull(trackedObject.get("value")),
+        () ->
+            assertEquals(
+                Arrays.asList("person", "value"),
+                Arrays.asList(trackedObject.markDirty("person").getDirtyPaths().toArray())),
+        () -> assertEquals(Collections.singleton(""), trackedObject.markDirty().getDirtyPaths()));
+  }
+
+  @Test
+  void diffsMatchFullDiffs() {
+    JsonObject before = parse(JSON);
+    GsonTrackedObject trackedObject = new GsonTrackedObject(before.deepCopy());
+    trackedObject
+        .set("name", new JsonPrimitive("Bryan"))
+        .set("person.address.city", new JsonPrimitive("Tokyo"))
+        .set("married.recently", new JsonPrimitive(true))
+        .remove("person.age");
+    trackedObject.getObject().getAsJsonObject("person").getAsJsonArray("countries").add("US");
+    trackedObject.markDirty("person.countries");
+    GsonDiffResult diffs = gsonDiffer.diff(gson, before, trackedObject.getObject());
+    GsonDiffResult trackedDiffs = gsonDiffer.diff(trackedObject);
+    assertAll(
+        () -> assertEquals(diffs.index().keys(), trackedDiffs.index().keys()),
+        () -> assertEquals("Bryan", trackedDiffs.getStringDiff("name").getRight()),
+        () -> assertEquals(34.0, trackedDiffs.getDoubleDiff("person.age").getLeft()),
+        () -> assertEquals(1, trackedDiffs.getIntegerDiff("person.countries").getRight()));
+  }
+
+  @Test
+  void diffsOnlyCompareChangesSinceTheLastCommit() {
+    GsonTrackedObject trackedObject = GsonTrackedObject.of(gson, parse(JSON));
+    trackedObject.set("person.age", new JsonPrimitive(35)).remove("value");
+    trackedObject.commit();
+    GsonDiffResult committedDiffs = gsonDiffer.diff(trackedObject);
+    trackedObject.set("person.age", new JsonPrimitive(36)).markDirty("name");
+    GsonDiffResult diffs = gsonDiffer.diff(trackedObject);
+    assertAll(
+        () -> assertEquals(0, committedDiffs.size()),
+        () -> assertTrue(trackedObject.getDirtyPaths().contains("person.age")),
+        () -> assertEquals(1, diffs.size()),
+        () -> assertEquals(35.0, diffs.getDoubleDiff("person.age").getLeft()),
+        () -> assertEquals(36.0, diffs.getDoubleDiff("person.age").getRight()));
+  }
+
+  @Test
+  void diffsThrowAnExceptionWhenTypesConflict() {
+    GsonTrackedObject trackedObject = GsonTrackedObject.of(gson, parse(JSON));
+    trackedObject.set("value", new JsonPrimitive("zero"));
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> gsonDiffer.diff(trackedObject)),
+        () -> assertThrows(IllegalArgumentException.class, () -> trackedObject.markDirty("")));
+  }
+
+  private JsonObject parse(String json) {
+    return gson.fromJson(json, JsonObject.class);
+  }
+}